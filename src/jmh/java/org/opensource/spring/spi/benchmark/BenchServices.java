@@ -0,0 +1,147 @@
+package org.opensource.spring.spi.benchmark;
+
+import org.opensource.spring.spi.annotation.ElParam;
+import org.opensource.spring.spi.annotation.SPI;
+import org.opensource.spring.spi.annotation.SPIScan;
+import org.opensource.spring.spi.router.IndexedSPIRouter;
+import org.opensource.spring.spi.router.SPIPrefix;
+import org.opensource.spring.spi.router.SPIRouter;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Service;
+
+/**
+ * 基准测试的扩展接口、实现和路由
+ *
+ * 每个接口只有一个"a"实现，测量的是代理分发本身的开销。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public final class BenchServices {
+
+    private BenchServices() {
+    }
+
+    /**
+     * 基准测试配置，只扫描插件自身和基准测试包
+     */
+    @Configuration
+    @ComponentScan(basePackages = { "org.opensource.spring.spi.router", "org.opensource.spring.spi.proxy",
+            "org.opensource.spring.spi.benchmark" })
+    @SPIScan(basePackages = { "org.opensource.spring.spi.benchmark" })
+    public static class BenchConfig {
+    }
+
+    /**
+     * 请求参数
+     */
+    public static class BenchParam {
+        private String channel;
+        /**
+         * 驻留的channel，业务对象可以在创建时持有
+         */
+        private SPIPrefix prefix;
+
+        public BenchParam(String channel) {
+            this.channel = channel;
+            this.prefix = SPIPrefix.of(channel);
+        }
+
+        public String getChannel() {
+            return channel;
+        }
+
+        public SPIPrefix getPrefix() {
+            return prefix;
+        }
+    }
+
+    /**
+     * ThreadLocal路由，编译期静态代理
+     */
+    @SPI
+    public interface BenchService {
+        String handle(BenchParam param);
+    }
+
+    /**
+     * ThreadLocal路由，运行时动态代理
+     */
+    @SPI(generateProxy = false)
+    public interface BenchAopService {
+        String handle(BenchParam param);
+    }
+
+    /**
+     * spel路由
+     */
+    @SPI(route = "spelSPIRouter")
+    public interface BenchSpelService {
+        String handle(@ElParam("channel") BenchParam param);
+    }
+
+    /**
+     * 自定义路由
+     */
+    @SPI(route = "benchChannelRouter")
+    public interface BenchChannelService {
+        String handle(BenchParam param);
+    }
+
+    @Component("benchChannelRouter")
+    public static class BenchChannelRouter implements SPIRouter {
+        @Override
+        public String route(MethodInvocation invocation) {
+            return ((BenchParam) invocation.getArguments()[0]).getChannel();
+        }
+    }
+
+    /**
+     * 驻留prefix路由
+     */
+    @SPI(route = "benchIndexedRouter")
+    public interface BenchIndexedService {
+        String handle(BenchParam param);
+    }
+
+    @Component("benchIndexedRouter")
+    public static class BenchIndexedRouter implements IndexedSPIRouter {
+        @Override
+        public SPIPrefix routePrefix(MethodInvocation invocation) {
+            return ((BenchParam) invocation.getArguments()[0]).getPrefix();
+        }
+    }
+
+    /**
+     * 所有接口共用的实现逻辑，也作为直接调用的基线
+     */
+    public static class BenchImpl {
+        public String handle(BenchParam param) {
+            return param.getChannel();
+        }
+    }
+
+    @Service("aBenchService")
+    public static class ABenchService extends BenchImpl implements BenchService {
+    }
+
+    @Service("aBenchAopService")
+    public static class ABenchAopService extends BenchImpl implements BenchAopService {
+    }
+
+    @Service("aBenchSpelService")
+    public static class ABenchSpelService extends BenchImpl implements BenchSpelService {
+    }
+
+    @Service("aBenchChannelService")
+    public static class ABenchChannelService extends BenchImpl implements BenchChannelService {
+    }
+
+    @Service("aBenchIndexedService")
+    public static class ABenchIndexedService extends BenchImpl implements BenchIndexedService {
+    }
+}
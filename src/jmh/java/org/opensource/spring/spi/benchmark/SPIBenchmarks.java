@@ -0,0 +1,38 @@
+package org.opensource.spring.spi.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口
+ *
+ * 在jmh命令行参数的基础上默认开启gc profiler，输出每次调用的内存分配。
+ * 运行方式：mvn -P benchmark test-compile exec:exec -Djmh.args="SPIDispatch"
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public class SPIBenchmarks {
+
+    /**
+     * 测试资源中的日志配置为debug，基准测试进程关闭插件日志，避免测量到日志输出
+     */
+    static final String QUIET_LOG = "-Dorg.slf4j.simpleLogger.log.org.opensource.spring.spi=warn";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmdOptions = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .parent(cmdOptions)
+                .addProfiler(GCProfiler.class);
+        // 未指定时运行全部基准测试
+        if (cmdOptions.getIncludes().isEmpty()) {
+            builder.include(SPIBenchmarks.class.getPackage().getName() + ".*");
+        }
+        new Runner(builder.build()).run();
+    }
+}
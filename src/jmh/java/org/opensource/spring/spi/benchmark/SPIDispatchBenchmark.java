@@ -0,0 +1,142 @@
+package org.opensource.spring.spi.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.opensource.spring.spi.benchmark.BenchServices.BenchAopService;
+import org.opensource.spring.spi.benchmark.BenchServices.BenchChannelService;
+import org.opensource.spring.spi.benchmark.BenchServices.BenchConfig;
+import org.opensource.spring.spi.benchmark.BenchServices.BenchImpl;
+import org.opensource.spring.spi.benchmark.BenchServices.BenchIndexedService;
+import org.opensource.spring.spi.benchmark.BenchServices.BenchParam;
+import org.opensource.spring.spi.benchmark.BenchServices.BenchService;
+import org.opensource.spring.spi.benchmark.BenchServices.BenchSpelService;
+import org.opensource.spring.spi.router.ThreadLocalSPIRouter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * 代理分发基准测试
+ *
+ * 对比直接调用和各路由器下代理调用的开销，*Contended方法使用全部CPU线程并发调用。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = SPIBenchmarks.QUIET_LOG)
+@State(Scope.Benchmark)
+public class SPIDispatchBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+
+    private BenchImpl direct;
+    private BenchService threadLocalService;
+    private BenchAopService aopService;
+    private BenchSpelService spelService;
+    private BenchChannelService channelService;
+    private BenchIndexedService indexedService;
+
+    private final BenchParam param = new BenchParam("a");
+
+    @Setup
+    public void setup() {
+        context = new AnnotationConfigApplicationContext(BenchConfig.class);
+        direct = new BenchImpl();
+        threadLocalService = context.getBean(BenchService.class);
+        aopService = context.getBean(BenchAopService.class);
+        spelService = context.getBean(BenchSpelService.class);
+        channelService = context.getBean(BenchChannelService.class);
+        indexedService = context.getBean(BenchIndexedService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * 每个基准线程的ThreadLocal路由prefix
+     */
+    @State(Scope.Thread)
+    public static class PrefixState {
+        @Setup(Level.Trial)
+        public void push() {
+            ThreadLocalSPIRouter.pushPrefix("a");
+        }
+
+        @TearDown(Level.Trial)
+        public void clear() {
+            ThreadLocalSPIRouter.clear();
+        }
+    }
+
+    @Benchmark
+    public String direct() {
+        return direct.handle(param);
+    }
+
+    @Benchmark
+    public String threadLocalGenerated(PrefixState state) {
+        return threadLocalService.handle(param);
+    }
+
+    @Benchmark
+    public String threadLocalAop(PrefixState state) {
+        return aopService.handle(param);
+    }
+
+    @Benchmark
+    public String spel() {
+        return spelService.handle(param);
+    }
+
+    @Benchmark
+    public String customRouter() {
+        return channelService.handle(param);
+    }
+
+    @Benchmark
+    public String indexedRouter() {
+        return indexedService.handle(param);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String threadLocalGeneratedContended(PrefixState state) {
+        return threadLocalService.handle(param);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String spelContended() {
+        return spelService.handle(param);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String customRouterContended() {
+        return channelService.handle(param);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String indexedRouterContended() {
+        return indexedService.handle(param);
+    }
+}
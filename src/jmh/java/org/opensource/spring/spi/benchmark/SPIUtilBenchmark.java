@@ -0,0 +1,62 @@
+package org.opensource.spring.spi.benchmark;
+
+import static org.opensource.spring.spi.router.SPIUtil.withPrefix;
+
+import java.util.concurrent.TimeUnit;
+
+import org.opensource.spring.spi.router.ThreadLocalSPIRouter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 嵌套路由基准测试
+ *
+ * 测量{@link org.opensource.spring.spi.router.SPIUtil#withPrefix}在不同嵌套深度下的开销。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = SPIBenchmarks.QUIET_LOG)
+@State(Scope.Thread)
+public class SPIUtilBenchmark {
+
+    @Param({ "1", "4", "8" })
+    public int depth;
+
+    @Benchmark
+    public String peek() {
+        return ThreadLocalSPIRouter.peekPrefix();
+    }
+
+    @Benchmark
+    public String nested() {
+        return nested(depth);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String nestedContended() {
+        return nested(depth);
+    }
+
+    private String nested(int remain) {
+        if (remain == 0) {
+            return ThreadLocalSPIRouter.peekPrefix();
+        }
+        return withPrefix("p" + (remain & 1), () -> nested(remain - 1));
+    }
+}
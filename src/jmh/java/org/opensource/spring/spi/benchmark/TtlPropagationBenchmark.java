@@ -0,0 +1,93 @@
+package org.opensource.spring.spi.benchmark;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.ttl.threadpool.TtlExecutors;
+
+import org.opensource.spring.spi.router.ThreadLocalSPIRouter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 路由prefix线程池传递基准测试
+ *
+ * 对比普通线程池和TTL包装线程池提交任务的开销，栈深度影响TTL的capture/replay。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = SPIBenchmarks.QUIET_LOG)
+@State(Scope.Benchmark)
+public class TtlPropagationBenchmark {
+
+    private ExecutorService pool;
+    private ExecutorService ttlPool;
+
+    @Setup
+    public void setup() {
+        pool = Executors.newFixedThreadPool(4);
+        ttlPool = TtlExecutors.getTtlExecutorService(pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 每个基准线程的路由栈
+     */
+    @State(Scope.Thread)
+    public static class StackState {
+        @Param({ "1", "8" })
+        public int depth;
+
+        @Setup(Level.Trial)
+        public void push() {
+            for (int i = 0; i < depth; i++) {
+                ThreadLocalSPIRouter.pushPrefix("p" + i);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void clear() {
+            ThreadLocalSPIRouter.clear();
+        }
+    }
+
+    @Benchmark
+    public String plainPool(StackState state) throws InterruptedException, ExecutionException {
+        return pool.submit(ThreadLocalSPIRouter::peekPrefix).get();
+    }
+
+    @Benchmark
+    public String ttlPool(StackState state) throws InterruptedException, ExecutionException {
+        return ttlPool.submit(ThreadLocalSPIRouter::peekPrefix).get();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String ttlPoolContended(StackState state) throws InterruptedException, ExecutionException {
+        return ttlPool.submit(ThreadLocalSPIRouter::peekPrefix).get();
+    }
+}
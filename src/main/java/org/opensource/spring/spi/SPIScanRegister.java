@@ -1,21 +1,34 @@
 package org.opensource.spring.spi;
 
-import java.lang.reflect.Proxy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.opensource.spring.spi.annotation.SPI;
 import org.opensource.spring.spi.annotation.SPIScan;
+import org.opensource.spring.spi.annotation.SPIInvokerType;
 import org.opensource.spring.spi.proxy.SPIProxyFactory;
-import org.opensource.spring.spi.router.SPIRouter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanClassLoaderAware;
-import org.springframework.beans.factory.BeanFactory;
-import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
@@ -25,16 +38,24 @@ import org.springframework.context.EnvironmentAware;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
 import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.context.annotation.ScannedGenericBeanDefinition;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.ClassUtils;
 
 /**
  * SPI扩展扫描注册器
  * 
- * 用于在系统启动时，扫描配置的扫描路径下，所有{@link SPI}注解接口，为其生成动态代理实现，并注册到spring容器。
+ * 用于在系统启动时，扫描配置的扫描路径下，所有{@link SPI}注解接口，为其注册{@link SPIProxyFactory}代理工厂。
+ * 注册阶段只注册beanDefinition，不创建路由器和代理对象，路由器可以正常经过BeanPostProcessor处理，
+ * 代理对象在第一次注入或获取时创建。
  * 
  * 该类在{@link SPIScan}中引入，系统配置{@link SPIScan}注解，就会在启动时触发改扫描注册器。
  *
@@ -42,9 +63,12 @@ import org.springframework.util.ClassUtils;
  * @date 2021-11-19
  */
 public class SPIScanRegister
-        implements ImportBeanDefinitionRegistrar, BeanFactoryAware, ResourceLoaderAware, BeanClassLoaderAware,
-        EnvironmentAware {
+        implements ImportBeanDefinitionRegistrar, ResourceLoaderAware, BeanClassLoaderAware, EnvironmentAware {
     private static final Logger log = LoggerFactory.getLogger(SPIScanRegister.class);
+    /**
+     * SPI接口索引文件，由编译期注解处理器SPIProxyProcessor生成，每行一个接口类名
+     */
+    public static final String INDEX_LOCATION = "META-INF/spring-spi.index";
     /**
      * 资源加载器
      */
@@ -57,10 +81,6 @@ public class SPIScanRegister
      * 环境配置
      */
     private Environment environment;
-    /**
-     * bean工厂
-     */
-    private BeanFactory beanFactory;
 
     @Override
     public void setEnvironment(Environment environment) {
@@ -77,11 +97,6 @@ public class SPIScanRegister
         this.resourceLoader = resourceLoader;
     }
 
-    @Override
-    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
-        this.beanFactory = beanFactory;
-    }
-
     @Override
     public void registerBeanDefinitions(AnnotationMetadata importingClassMetadata, BeanDefinitionRegistry registry) {
         // 启动打印扫描路径配置
@@ -128,91 +143,249 @@ public class SPIScanRegister
      */
     public void registerSpi(AnnotationMetadata metadata, BeanDefinitionRegistry registry) {
         log.info("开始处理SPI扩展");
-        // 定制扫描器
-        log.info("定制接口扫描器");
-        ClassPathScanningCandidateComponentProvider scanner = getScanner();
-        scanner.setResourceLoader(this.resourceLoader);
-        AnnotationTypeFilter annotationTypeFilter = new AnnotationTypeFilter(SPI.class);
-        scanner.addIncludeFilter(annotationTypeFilter);
-
-        // 获取basePackage配置，遍历扫描注册
+        // 获取basePackage配置，扫描候选接口
         Set<String> basePackages = getBasePackages(metadata);
-        for (String basePackage : basePackages) {
-            log.info("SPI扩展，开始处理{}", basePackage);
-            // 扫描BeanDefinition
-            Set<BeanDefinition> candidates = scanner.findCandidateComponents(basePackage);
-            for (BeanDefinition candidate : candidates) {
-                try {
-                    log.info("开始处理扩展接口:{}", candidate.getBeanClassName());
-                    // 获取spi配置的路由
-                    AnnotationMetadata spiAnno = null;
-                    if (candidate instanceof AnnotatedBeanDefinition) {
-                        spiAnno = ((AnnotatedBeanDefinition) candidate).getMetadata();
-                    }
-                    Map<String, Object> spiAnnotationAttr = spiAnno.getAnnotationAttributes(SPI.class.getName());
-                    if (spiAnnotationAttr == null) {
-                        continue;
-                    }
-                    String routeBeanName = null;
-                    if (spiAnnotationAttr.get("route") instanceof String) {
-                        routeBeanName = (String) spiAnnotationAttr.get("route");
+        Collection<BeanDefinition> candidates = scanCandidates(basePackages, isUseIndex(metadata));
+        boolean lazyInit = isLazyInit(metadata);
+
+        for (BeanDefinition candidate : candidates) {
+            try {
+                log.info("开始处理扩展接口:{}", candidate.getBeanClassName());
+                // 获取spi配置的路由
+                AnnotationMetadata spiAnno = null;
+                if (candidate instanceof AnnotatedBeanDefinition) {
+                    spiAnno = ((AnnotatedBeanDefinition) candidate).getMetadata();
+                }
+                Map<String, Object> spiAnnotationAttr = spiAnno.getAnnotationAttributes(SPI.class.getName());
+                if (spiAnnotationAttr == null) {
+                    continue;
+                }
+                String routeBeanName = null;
+                if (spiAnnotationAttr.get("route") instanceof String) {
+                    routeBeanName = (String) spiAnnotationAttr.get("route");
+                }
+
+                // 注册代理工厂的beanDefinition，路由器和代理对象在第一次使用时才创建，接口类只在这里加载一次
+                Class<?> serviceClaz = ClassUtils.forName(candidate.getBeanClassName(), this.classLoader);
+                BeanDefinitionBuilder beanDefinitionBuilder = BeanDefinitionBuilder
+                        .genericBeanDefinition(SPIProxyFactory.class)
+                        .addPropertyValue("serviceInterface", serviceClaz)
+                        .addPropertyValue("spiRouterBeanName", routeBeanName);
+                if (spiAnnotationAttr.get("invoker") instanceof SPIInvokerType) {
+                    beanDefinitionBuilder.addPropertyValue("invokerType", spiAnnotationAttr.get("invoker"));
+                }
+                if (spiAnnotationAttr.get("fallback") instanceof String[]) {
+                    beanDefinitionBuilder.addPropertyValue("fallbackPrefixes", spiAnnotationAttr.get("fallback"));
+                }
+                if (spiAnnotationAttr.get("maxConcurrency") instanceof Integer) {
+                    beanDefinitionBuilder.addPropertyValue("maxConcurrency", spiAnnotationAttr.get("maxConcurrency"));
+                }
+                if (spiAnnotationAttr.get("maxWaitMillis") instanceof Long) {
+                    beanDefinitionBuilder.addPropertyValue("maxWaitMillis", spiAnnotationAttr.get("maxWaitMillis"));
+                }
+                AbstractBeanDefinition beanDefinition = beanDefinitionBuilder.getBeanDefinition();
+                // 声明代理类型，按类型注入时不需要提前创建工厂
+                beanDefinition.setAttribute(FactoryBean.OBJECT_TYPE_ATTRIBUTE, serviceClaz);
+                beanDefinition.setPrimary(true); // set primary
+                beanDefinition.setLazyInit(lazyInit);
+
+                // 注册bean
+                StringBuilder sb = new StringBuilder()
+                        .append(serviceClaz.getSimpleName())
+                        .append("#Proxy");
+                registry.registerBeanDefinition(sb.toString(), beanDefinition);
+
+                log.info("完成处理扩展接口:{}", candidate.getBeanClassName());
+            } catch (Exception e) {
+                log.error("创建SPI扩展代理失败:{}", e.getMessage(), e);
+            }
+        }
+        log.info("处理SPI扩展结束");
+    }
+
+    /**
+     * 代理工厂是否延迟初始化
+     *
+     * @param metadata
+     * @return
+     */
+    private boolean isLazyInit(AnnotationMetadata metadata) {
+        Map<String, Object> attributes = metadata.getAnnotationAttributes(SPIScan.class.getName());
+        return attributes != null && Boolean.TRUE.equals(attributes.get("lazyInit"));
+    }
+
+    /**
+     * 是否使用SPI接口索引
+     *
+     * @param metadata
+     * @return
+     */
+    private boolean isUseIndex(AnnotationMetadata metadata) {
+        Map<String, Object> attributes = metadata.getAnnotationAttributes(SPIScan.class.getName());
+        return attributes != null && Boolean.TRUE.equals(attributes.get("useIndex"));
+    }
+
+    /**
+     * 扫描所有basePackage下的SPI接口
+     *
+     * 使用索引时，索引中有接口的basePackage直接读取索引，不遍历类路径；索引中没有接口的basePackage仍然扫描类路径。
+     * 多个basePackage时并行扫描，每个包使用独立的扫描器。
+     * 结果按类名去重排序，重叠的扫描路径不会重复注册，注册顺序也不受并行影响。
+     *
+     * @param basePackages
+     * @param useIndex 是否使用{@link #INDEX_LOCATION}索引
+     * @return
+     */
+    protected Collection<BeanDefinition> scanCandidates(Set<String> basePackages, boolean useIndex) {
+        Map<String, BeanDefinition> candidates = new TreeMap<>();
+        if (useIndex) {
+            Set<String> indexed = loadIndex();
+            Set<String> unindexed = new TreeSet<>();
+            for (String basePackage : basePackages) {
+                Set<BeanDefinition> found = readIndex(indexed, basePackage);
+                if (found.isEmpty()) {
+                    unindexed.add(basePackage);
+                } else {
+                    log.info("SPI扩展，从索引读取{}，接口数:{}", basePackage, found.size());
+                    addCandidates(candidates, found);
+                }
+            }
+            basePackages = unindexed;
+        }
+        if (basePackages.size() <= 1) {
+            for (String basePackage : basePackages) {
+                addCandidates(candidates, scanPackage(basePackage));
+            }
+            return candidates.values();
+        }
+
+        int threads = Math.min(basePackages.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("spi-scan-"));
+        try {
+            List<Future<Set<BeanDefinition>>> futures = new ArrayList<>(basePackages.size());
+            for (String basePackage : basePackages) {
+                futures.add(executor.submit(() -> scanPackage(basePackage)));
+            }
+            for (Future<Set<BeanDefinition>> future : futures) {
+                addCandidates(candidates, future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("SPI package scan interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("SPI package scan failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        return candidates.values();
+    }
+
+    private void addCandidates(Map<String, BeanDefinition> candidates, Set<BeanDefinition> scanned) {
+        for (BeanDefinition candidate : scanned) {
+            candidates.putIfAbsent(candidate.getBeanClassName(), candidate);
+        }
+    }
+
+    /**
+     * 读取类路径下所有的SPI接口索引
+     *
+     * @return 接口类名，没有索引时为空
+     */
+    private Set<String> loadIndex() {
+        Set<String> indexed = new TreeSet<>();
+        try {
+            Enumeration<URL> urls = getClassLoader().getResources(INDEX_LOCATION);
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        line = line.trim();
+                        if (!line.isEmpty() && !line.startsWith("#")) {
+                            indexed.add(line);
+                        }
                     }
-                    SPIRouter route = beanFactory.getBean(routeBeanName, SPIRouter.class);
-
-                    // 创建动态代理对象
-                    SPIProxyFactory proxyFactory = this.beanFactory.getBean(SPIProxyFactory.class);
-                    Class<?> serviceClaz = Class.forName(candidate.getBeanClassName());
-                    proxyFactory.setServiceInterface(serviceClaz);
-                    proxyFactory.setSpiRouter(route);
-                    Object spiProxyObject = proxyFactory.getObject();
-
-                    // 创建beanDefinition
-                    BeanDefinitionBuilder beanDefinitionBuilder = BeanDefinitionBuilder
-                            .genericBeanDefinition(spiProxyObject.getClass());
-                    beanDefinitionBuilder.addConstructorArgValue(Proxy.getInvocationHandler(spiProxyObject));
-                    AbstractBeanDefinition beanDefinition = beanDefinitionBuilder.getBeanDefinition();
-                    beanDefinition.setPrimary(true); // set primary
-
-                    // 注册bean
-                    StringBuilder sb = new StringBuilder()
-                            .append(serviceClaz.getSimpleName())
-                            .append("#Proxy");
-                    registry.registerBeanDefinition(sb.toString(), beanDefinition);
-
-                    log.info("完成处理扩展接口:{}", candidate.getBeanClassName());
-                } catch (Exception e) {
-                    log.error("创建SPI扩展代理失败:{}", e.getMessage(), e);
                 }
-                log.info("处理SPI扩展结束:{}", basePackage);
             }
+        } catch (IOException e) {
+            throw new IllegalStateException("SPI index load failed: " + INDEX_LOCATION, e);
+        }
+        if (indexed.isEmpty()) {
+            log.warn("SPI index not found, scanning classpath: {}", INDEX_LOCATION);
         }
+        return indexed;
+    }
+
+    /**
+     * 从索引中读取单个basePackage下的SPI接口，只读取类元数据，不加载类
+     *
+     * @param indexed 索引中的接口类名
+     * @param basePackage
+     * @return
+     */
+    private Set<BeanDefinition> readIndex(Set<String> indexed, String basePackage) {
+        Set<BeanDefinition> candidates = new LinkedHashSet<>();
+        if (indexed.isEmpty()) {
+            return candidates;
+        }
+        // 与类路径扫描一致，basePackage支持模糊匹配，包含子包
+        AntPathMatcher matcher = new AntPathMatcher(".");
+        MetadataReaderFactory metadataReaderFactory = new CachingMetadataReaderFactory(this.resourceLoader);
+        for (String className : indexed) {
+            if (!matcher.match(basePackage + ".**", ClassUtils.getPackageName(className))) {
+                continue;
+            }
+            try {
+                MetadataReader metadataReader = metadataReaderFactory.getMetadataReader(className);
+                AnnotationMetadata metadata = metadataReader.getAnnotationMetadata();
+                if (metadata.isIndependent() && metadata.isInterface() && metadata.hasAnnotation(SPI.class.getName())) {
+                    ScannedGenericBeanDefinition candidate = new ScannedGenericBeanDefinition(metadataReader);
+                    candidate.setSource(metadataReader.getResource());
+                    candidates.add(candidate);
+                }
+            } catch (IOException e) {
+                log.warn("SPI index entry skipped, class not found: {}", className);
+            }
+        }
+        return candidates;
+    }
+
+    private ClassLoader getClassLoader() {
+        return this.classLoader != null ? this.classLoader : ClassUtils.getDefaultClassLoader();
+    }
+
+    /**
+     * 扫描单个basePackage
+     *
+     * @param basePackage
+     * @return
+     */
+    private Set<BeanDefinition> scanPackage(String basePackage) {
+        log.info("SPI扩展，开始扫描{}", basePackage);
+        ClassPathScanningCandidateComponentProvider scanner = getScanner();
+        scanner.setResourceLoader(this.resourceLoader);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(SPI.class));
+        return scanner.findCandidateComponents(basePackage);
     }
 
     /**
      * 创建扫描器，核心是扫描注解的接口
      *
+     * 只根据ASM读取的类元数据判断，不加载类。
+     * {@link SPI}不是{@link org.springframework.stereotype.Indexed}注解，扫描器不使用META-INF/spring.components索引，
+     * spring.components只覆盖部分模块时也不会遗漏接口。需要索引时使用SPI专用的{@link #INDEX_LOCATION}，见{@link SPIScan#useIndex()}。
+     *
      * @return
      */
     protected ClassPathScanningCandidateComponentProvider getScanner() {
         return new ClassPathScanningCandidateComponentProvider(false, this.environment) {
             @Override
             protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
-
-                // 独立类接口
-                if (beanDefinition.getMetadata().isIndependent() && beanDefinition.getMetadata().isInterface()) {
-                    try {
-                        Class<?> target = ClassUtils.forName(beanDefinition.getMetadata().getClassName(),
-                                SPIScanRegister.this.classLoader);
-
-                        // 只返回注解了SPI的接口
-                        SPI[] annotationsByType = target.getAnnotationsByType(SPI.class);
-                        return annotationsByType.length > 0;
-                    } catch (Exception ex) {
-                        this.logger.error(
-                                "Could not load target class: {}" + beanDefinition.getMetadata().getClassName(), ex);
-                    }
-                }
-                return false;
+                // 独立类接口，且注解了SPI
+                AnnotationMetadata metadata = beanDefinition.getMetadata();
+                return metadata.isIndependent() && metadata.isInterface()
+                        && metadata.hasAnnotation(SPI.class.getName());
             }
         };
     }
@@ -0,0 +1,28 @@
+package org.opensource.spring.spi.annotation;
+
+/**
+ * spel路由表达式的编译模式
+ *
+ * 在{@link ElParam#compilerMode()}中指定，除DEFAULT外与{@link org.springframework.expression.spel.SpelCompilerMode}一一对应。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public enum ElCompilerMode {
+    /**
+     * 使用路由器的编译模式
+     */
+    DEFAULT,
+    /**
+     * 不编译，始终解释执行
+     */
+    OFF,
+    /**
+     * 立即编译，编译失败时抛出异常
+     */
+    IMMEDIATE,
+    /**
+     * 多次解释执行后编译，编译失败时退回解释执行
+     */
+    MIXED
+}
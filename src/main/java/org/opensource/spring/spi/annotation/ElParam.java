@@ -13,6 +13,7 @@ import java.lang.annotation.Target;
  * 
  * 在{@link SPI}使用spel路由实现时，在方法签名中指定具体的spel表达式。
  * 路由计算时会使用对应的参数计算指定的spel表达式来算出路由。
+ * compilerMode参数可以为单个方法指定spel编译模式，如只执行一次的表达式关闭编译，热点路由立即编译。
  *
  * @author wutianbiao
  * @date 2021-11-22
@@ -27,4 +28,11 @@ public @interface ElParam {
      * @return
      */
     String value();
+
+    /**
+     * 表达式的spel编译模式，未配置时使用路由器的编译模式
+     *
+     * @return
+     */
+    ElCompilerMode compilerMode() default ElCompilerMode.DEFAULT;
 }
@@ -15,6 +15,13 @@ import java.lang.annotation.Target;
  * 使用时只需要在对应的接口上添加对应的注解标识该接口有多个SPI扩展实现。
  * route参数是用来指定具体的路由实现类的，值为路由实现类在spring中的beanName。
  * 如果未指定默认的路由为{@link ThreadLocalSPIRouter}。
+ * invoker参数用来指定调用目标实现方法的方式，默认生成字节码直接调用，可以指定为反射调用。
+ * 启用编译期注解处理器SPIProxyProcessor时，会在编译期为接口生成静态代理，generateProxy参数可以关闭单个接口的生成。
+ * fallback参数用来配置路由的prefix没有实现时的降级prefix。
+ * maxConcurrency、maxWaitMillis参数用来限制每个prefix的并发调用数，隔离慢的实现。
+ * dimensions参数声明多维路由的维度，配合dimensionalSPIRouter和实现类上的{@link SPIMatch}使用。
+ * 没有标注spring的@Indexed，存在META-INF/spring.components索引时，扫描仍然遍历类路径，不会遗漏没有写入索引的接口。
+ * SPIProxyProcessor会把所有接口写入META-INF/spring-spi.index，配置{@link SPIScan#useIndex()}时启动读取该索引。
  *
  * @author wutianbiao
  * @date 2021-11-19
@@ -26,4 +33,39 @@ public @interface SPI {
      * spi route在spring中的beanName
      */
     String route() default "threadLocalSPIRouter";
+
+    /**
+     * 目标实现方法的调用方式
+     */
+    SPIInvokerType invoker() default SPIInvokerType.BYTECODE;
+
+    /**
+     * 启用编译期注解处理器SPIProxyProcessor时，是否为该接口生成静态代理
+     */
+    boolean generateProxy() default true;
+
+    /**
+     * 路由的prefix没有对应实现时，依次尝试的prefix，如{"regionA", ""}，""表示beanName为接口名的默认实现。
+     * 解析结果按路由的prefix缓存，之后同一prefix的调用不再查找bean，路由器返回的prefix取值应当是有限的。
+     * 未配置或者都没有实现时，抛出{@link org.springframework.beans.factory.NoSuchBeanDefinitionException}
+     */
+    String[] fallback() default {};
+
+    /**
+     * 每个prefix的最大并发调用数，0表示不限制。
+     * 可以通过配置项"spring.spi.bulkhead.接口名.max-concurrency"覆盖，"spring.spi.bulkhead.接口名.prefix.max-concurrency"单独配置某个prefix
+     */
+    int maxConcurrency() default 0;
+
+    /**
+     * 超过最大并发数时的最大等待时间(毫秒)，0表示立即拒绝，等待超时抛出{@link org.opensource.spring.spi.proxy.SPIRejectedException}。
+     * 可以通过配置项"spring.spi.bulkhead.接口名[.prefix].max-wait-millis"覆盖
+     */
+    long maxWaitMillis() default 0;
+
+    /**
+     * 多维路由的维度名称，如{"tenant", "channel", "region"}，同样具体时靠前的维度优先。
+     * 使用dimensionalSPIRouter时必须配置
+     */
+    String[] dimensions() default {};
 }
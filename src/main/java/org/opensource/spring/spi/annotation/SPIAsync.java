@@ -0,0 +1,39 @@
+package org.opensource.spring.spi.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * SPI异步调用注解
+ * 
+ * 注解在{@link SPI}接口的方法上，代理在调用线程完成路由后，把目标方法提交到线程池执行。
+ * 提交时捕获调用线程的路由上下文(ThreadLocalSPIRouter的prefix栈等TransmittableThreadLocal)，在线程池中回放，
+ * 调用方不需要自己包装线程池。
+ * 
+ * 方法返回值只能是void、{@link java.util.concurrent.CompletableFuture}或{@link java.util.concurrent.CompletionStage}。
+ * 返回future时，代理返回的future在捕获的上下文中完成，直接注册的后续回调同样可以读取调用时的prefix。
+ * 
+ * 未注解的方法返回{@link java.util.concurrent.CompletionStage}时，代理不包装，原样返回实现的future，后续回调不回放调用时的上下文。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SPIAsync {
+    /**
+     * 默认线程池在spring中的beanName，不存在时使用{@link java.util.concurrent.ForkJoinPool#commonPool()}
+     */
+    String DEFAULT_EXECUTOR = "spiAsyncExecutor";
+
+    /**
+     * 执行目标方法的线程池(Executor)在spring中的beanName，未指定时使用默认线程池
+     *
+     * @return
+     */
+    String executor() default "";
+}
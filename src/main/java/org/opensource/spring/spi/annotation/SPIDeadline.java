@@ -0,0 +1,56 @@
+package org.opensource.spring.spi.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * SPI调用时限注解
+ * 
+ * 注解在{@link SPI}接口的方法上，代理在线程池中调用路由到的实现，调用线程最多等待timeoutMillis，
+ * 超时抛出{@link org.opensource.spring.spi.proxy.SPITimeoutException}，并中断执行中的调用。
+ * 
+ * 配置hedgeDelayMillis时开启对冲调用：路由到的实现超过hedgeDelayMillis未返回时，
+ * 再调用hedgePrefix对应的实现，取先成功返回的结果。对冲会重复执行，只适用于只读、幂等的方法。
+ * 
+ * 线程池通过TransmittableThreadLocal传递调用线程的路由上下文，对冲调用在上下文之上压入hedgePrefix。
+ * 不能与{@link SPIAsync}同时使用。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SPIDeadline {
+
+    /**
+     * 调用时限(毫秒)，包括对冲调用
+     *
+     * @return
+     */
+    long timeoutMillis();
+
+    /**
+     * 开始对冲调用的延迟(毫秒)，小于0时不对冲
+     *
+     * @return
+     */
+    long hedgeDelayMillis() default -1;
+
+    /**
+     * 对冲调用的prefix
+     *
+     * @return
+     */
+    String hedgePrefix() default "";
+
+    /**
+     * 执行调用的线程池(ExecutorService)在spring中的beanName，未指定时使用共享的线程池
+     *
+     * @return
+     */
+    String executor() default "";
+}
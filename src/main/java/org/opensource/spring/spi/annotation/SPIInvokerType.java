@@ -0,0 +1,20 @@
+package org.opensource.spring.spi.annotation;
+
+/**
+ * SPI目标方法调用方式
+ *
+ * 在{@link SPI#invoker()}中指定，控制代理如何调用路由到的目标bean方法。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public enum SPIInvokerType {
+    /**
+     * 反射调用，{@link java.lang.reflect.Method#invoke(Object, Object...)}
+     */
+    REFLECTION,
+    /**
+     * 字节码调用，为每个(实现类, 方法)生成直接调用的类，生成失败时退化为反射调用
+     */
+    BYTECODE
+}
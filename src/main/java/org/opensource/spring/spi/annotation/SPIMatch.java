@@ -0,0 +1,34 @@
+package org.opensource.spring.spi.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * SPI实现的路由维度匹配注解
+ *
+ * 注解在扩展实现类上，声明该实现匹配的路由维度取值，配合dimensionalSPIRouter使用。
+ * 维度名称必须在接口的{@link SPI#dimensions()}中声明，未声明的维度匹配任意取值。
+ *
+ * <pre>
+ * &#64;SPIMatch({ "tenant=acme", "channel=app" })
+ * &#64;Service("acmeAppPayService")
+ * public class AcmeAppPayService implements PayService
+ * </pre>
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SPIMatch {
+    /**
+     * 匹配的维度取值，格式为"维度=取值"
+     *
+     * @return
+     */
+    String[] value();
+}
@@ -18,6 +18,8 @@ import org.springframework.context.annotation.Import;
  * 
  * 通常在spring-boot的启动类，或者@Configuration配置类上添加该注解。
  * basePackages参数用来指定一个或者多个扫描路径，支持模糊匹配预发与{@link ComponentScan}一致。
+ * lazyInit参数用来延迟初始化代理工厂，没有被依赖的接口启动时不创建代理，也不做实现校验和分发表预热。
+ * useIndex参数用来读取编译期注解处理器SPIProxyProcessor生成的META-INF/spring-spi.index索引，不再遍历类路径。
  *
  * @author wutianbiao
  * @date 2021-11-19
@@ -35,4 +37,21 @@ public @interface SPIScan {
      */
     String[] basePackages() default {};
 
+    /**
+     * 代理工厂是否延迟初始化，第一次使用时才创建
+     * 
+     * @return
+     */
+    boolean lazyInit() default false;
+
+    /**
+     * 是否使用编译期生成的SPI接口索引
+     * 
+     * 索引中有接口的扫描路径只读取索引，索引中没有接口的扫描路径仍然遍历类路径。
+     * 开启时需要所有包含SPI接口的模块都启用SPIProxyProcessor编译，只增量编译了部分文件时索引可能不完整。
+     * 
+     * @return
+     */
+    boolean useIndex() default false;
+
 }
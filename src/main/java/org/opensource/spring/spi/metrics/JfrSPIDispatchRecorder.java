@@ -0,0 +1,58 @@
+package org.opensource.spring.spi.metrics;
+
+import java.lang.reflect.Method;
+
+import org.opensource.spring.spi.router.ThreadLocalSPIRouter;
+
+import jdk.jfr.EventType;
+
+/**
+ * 基于JFR的分发记录器
+ *
+ * 没有开启{@link SPIDispatchEvent}的录制时，只读取一次事件类型的开关，不创建事件对象。
+ * 只能通过{@link SPIFlightRecorder}反射加载。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+final class JfrSPIDispatchRecorder implements SPIDispatchRecorder {
+    /**
+     * 事件类型，用于判断是否开启录制
+     */
+    private final EventType eventType = EventType.getEventType(SPIDispatchEvent.class);
+
+    @Override
+    public Object begin(Class<?> serviceInterface, Method method, Class<?> routerType) {
+        if (!eventType.isEnabled()) {
+            return null;
+        }
+        SPIDispatchEvent event = new SPIDispatchEvent();
+        event.begin();
+        event.serviceInterface = serviceInterface;
+        event.method = method.getName();
+        event.router = routerType;
+        event.stackDepth = ThreadLocalSPIRouter.depth();
+        return event;
+    }
+
+    @Override
+    public void routed(Object recording, String prefix, String beanName) {
+        SPIDispatchEvent event = (SPIDispatchEvent) recording;
+        event.prefix = prefix;
+        event.beanName = beanName;
+    }
+
+    @Override
+    public void end(Object recording, Throwable error) {
+        SPIDispatchEvent event = (SPIDispatchEvent) recording;
+        event.end();
+        // 未超过阈值时不提交
+        if (event.shouldCommit()) {
+            if (error != null) {
+                event.exception = error.getClass();
+                event.exceptionMessage = error.getMessage();
+            }
+            event.commit();
+        }
+    }
+}
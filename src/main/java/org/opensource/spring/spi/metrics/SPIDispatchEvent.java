@@ -0,0 +1,60 @@
+package org.opensource.spring.spi.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * SPI分发的JFR事件
+ *
+ * 事件的持续时间为一次代理分发的耗时，包括路由计算、目标bean解析和目标方法调用。
+ * 只能通过{@link SPIFlightRecorder}反射加载，业务代码不要直接引用，否则在不支持JFR的JVM上会加载失败。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@Name(SPIDispatchEvent.NAME)
+@Label("SPI Dispatch")
+@Category({ "Spring SPI" })
+@Description("SPI proxy route decision and dispatch to the extension implementation")
+@Threshold(SPIDispatchEvent.DEFAULT_THRESHOLD)
+public class SPIDispatchEvent extends Event {
+    /**
+     * 事件名称
+     */
+    public static final String NAME = "org.opensource.spring.spi.Dispatch";
+    /**
+     * 默认阈值，只记录超过该耗时的分发
+     */
+    public static final String DEFAULT_THRESHOLD = "20 ms";
+
+    @Label("Service Interface")
+    Class<?> serviceInterface;
+
+    @Label("Method")
+    String method;
+
+    @Label("Router")
+    Class<?> router;
+
+    @Label("Route Prefix")
+    @Description("Prefix computed by the router")
+    String prefix;
+
+    @Label("Bean Name")
+    @Description("Resolved implementation bean")
+    String beanName;
+
+    @Label("Route Stack Depth")
+    @Description("ThreadLocalSPIRouter prefix stack depth of the calling thread")
+    int stackDepth;
+
+    @Label("Exception")
+    Class<?> exception;
+
+    @Label("Exception Message")
+    String exceptionMessage;
+}
@@ -0,0 +1,44 @@
+package org.opensource.spring.spi.metrics;
+
+/**
+ * 单个(接口, 方法, prefix)的分发指标
+ *
+ * 在业务线程中同步调用，实现需要无锁、低开销，如使用{@link java.util.concurrent.atomic.LongAdder}。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public interface SPIDispatchMetrics {
+
+    /**
+     * 记录路由解析耗时，包括路由计算和目标bean解析
+     *
+     * @param nanos
+     */
+    void recordRoute(long nanos);
+
+    /**
+     * 记录调用成功
+     *
+     * @param nanos 目标方法耗时
+     */
+    void recordSuccess(long nanos);
+
+    /**
+     * 记录调用异常
+     *
+     * @param nanos 目标方法耗时
+     * @param error 目标方法抛出的异常
+     */
+    void recordError(long nanos, Throwable error);
+
+    /**
+     * 记录路由未命中，prefix找不到对应的实现bean
+     */
+    void recordRouteMiss();
+
+    /**
+     * 记录调用被隔离舱拒绝，超过并发上限且等待超时
+     */
+    void recordRejected();
+}
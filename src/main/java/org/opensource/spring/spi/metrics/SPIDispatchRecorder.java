@@ -0,0 +1,45 @@
+package org.opensource.spring.spi.metrics;
+
+import java.lang.reflect.Method;
+
+/**
+ * SPI分发记录器
+ *
+ * 逐次记录分发的扩展点，和按(接口, 方法, prefix)聚合的{@link SPIDispatchMetrics}互补，用于定位具体的慢调用。
+ * 容器中存在该类型的bean时使用该bean，否则运行在支持JFR的JVM上时，默认使用{@link SPIFlightRecorder#getRecorder()}。
+ *
+ * 在业务线程中同步调用：{@link #begin}返回记录对象，路由解析后调用{@link #routed}，分发结束后调用{@link #end}。
+ * begin返回null时本次分发不再回调，实现应在不需要记录时尽快返回null。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public interface SPIDispatchRecorder {
+
+    /**
+     * 开始记录一次分发
+     *
+     * @param serviceInterface SPI接口
+     * @param method           接口方法
+     * @param routerType       路由器类型
+     * @return 记录对象，不记录时返回null
+     */
+    Object begin(Class<?> serviceInterface, Method method, Class<?> routerType);
+
+    /**
+     * 路由解析完成
+     *
+     * @param recording begin返回的记录对象
+     * @param prefix    路由器计算的prefix
+     * @param beanName  解析到的目标bean，fallback时和prefix不对应
+     */
+    void routed(Object recording, String prefix, String beanName);
+
+    /**
+     * 分发结束，异步方法在提交后结束
+     *
+     * @param recording begin返回的记录对象
+     * @param error     分发抛出的异常，成功时为null
+     */
+    void end(Object recording, Throwable error);
+}
@@ -0,0 +1,72 @@
+package org.opensource.spring.spi.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+
+/**
+ * JFR(Java Flight Recorder)集成
+ *
+ * 运行时存在jdk.jfr.Event时，反射加载{@link JfrSPIDispatchRecorder}，分发记录为{@link SPIDispatchEvent}事件。
+ * 不存在时(如旧版本的Java 8)不加载任何JFR相关的类，插件仍然可以正常运行。
+ *
+ * 事件只在JFR录制开启了该事件时才会创建，默认只记录超过{@link SPIDispatchEvent#DEFAULT_THRESHOLD}的分发，
+ * 可以通过JFR配置"org.opensource.spring.spi.Dispatch#threshold"调整。
+ * 配置项"spring.spi.jfr.enabled=false"可以关闭默认集成。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public final class SPIFlightRecorder {
+    private static final Logger log = LoggerFactory.getLogger(SPIFlightRecorder.class);
+
+    /**
+     * 开启JFR集成的配置项
+     */
+    public static final String ENABLED_PROPERTY = "spring.spi.jfr.enabled";
+
+    private static final String JFR_EVENT_CLASS = "jdk.jfr.Event";
+    private static final String RECORDER_CLASS = "org.opensource.spring.spi.metrics.JfrSPIDispatchRecorder";
+
+    /**
+     * JFR记录器，不支持JFR时为null
+     */
+    private static final SPIDispatchRecorder RECORDER = createRecorder();
+
+    private SPIFlightRecorder() {
+    }
+
+    /**
+     * 获取JFR记录器
+     *
+     * @return 不支持JFR时返回null
+     */
+    public static SPIDispatchRecorder getRecorder() {
+        return RECORDER;
+    }
+
+    /**
+     * 是否支持JFR
+     *
+     * @return
+     */
+    public static boolean isAvailable() {
+        return RECORDER != null;
+    }
+
+    private static SPIDispatchRecorder createRecorder() {
+        ClassLoader classLoader = SPIFlightRecorder.class.getClassLoader();
+        if (!ClassUtils.isPresent(JFR_EVENT_CLASS, classLoader)) {
+            log.debug("SPI flight recorder disabled, {} not present", JFR_EVENT_CLASS);
+            return null;
+        }
+        try {
+            return (SPIDispatchRecorder) BeanUtils
+                    .instantiateClass(ClassUtils.forName(RECORDER_CLASS, classLoader));
+        } catch (ClassNotFoundException | LinkageError | RuntimeException e) {
+            log.warn("SPI flight recorder disabled: {}", e.toString());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.opensource.spring.spi.metrics;
+
+import java.lang.reflect.Method;
+
+/**
+ * SPI分发指标注册表
+ *
+ * 指标采集的扩展点，容器中存在该类型的bean时，代理会按(接口, 方法, prefix)采集分发指标。
+ * 不存在时不采集，没有任何开销。
+ *
+ * 代理会在解析分发目标时获取一次{@link SPIDispatchMetrics}并缓存，实现不需要再做缓存，
+ * 但同一个(接口, 方法, prefix)应返回同一个指标对象。
+ * 路由未命中时prefix为{@link #ROUTE_MISS_PREFIX}，不会按路由器返回的原始prefix创建指标。
+ * 可以使用内置的{@link SimpleSPIMetricsRegistry}，也可以桥接到micrometer等监控系统。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public interface SPIMetricsRegistry {
+    /**
+     * 路由未命中的指标prefix。未命中的prefix取值没有上限，所有未命中都记录在每个方法的这一个指标下
+     */
+    String ROUTE_MISS_PREFIX = "?";
+
+    /**
+     * 获取分发指标
+     *
+     * @param serviceInterface SPI接口
+     * @param method           接口方法
+     * @param prefix           路由prefix
+     * @return
+     */
+    SPIDispatchMetrics getMetrics(Class<?> serviceInterface, Method method, String prefix);
+}
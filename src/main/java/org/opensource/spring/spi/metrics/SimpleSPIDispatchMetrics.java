@@ -0,0 +1,173 @@
+package org.opensource.spring.spi.metrics;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 内存分发指标
+ *
+ * 计数使用{@link LongAdder}，耗时使用按2的幂分桶的直方图，每个桶也是一个LongAdder，记录时无锁。
+ * 分位数按桶的上界估算，精度为2倍，适合观察量级和趋势。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public class SimpleSPIDispatchMetrics implements SPIDispatchMetrics {
+    /**
+     * 直方图桶数，最大桶约为2^40纳秒(18分钟)
+     */
+    private static final int BUCKETS = 41;
+
+    private final Class<?> serviceInterface;
+    private final Method method;
+    private final String prefix;
+
+    private final LongAdder callCount = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+    private final LongAdder routeMissCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAdder routeCount = new LongAdder();
+    private final LongAdder routeNanos = new LongAdder();
+    private final LongAdder[] latencyHistogram = new LongAdder[BUCKETS];
+
+    public SimpleSPIDispatchMetrics(Class<?> serviceInterface, Method method, String prefix) {
+        this.serviceInterface = serviceInterface;
+        this.method = method;
+        this.prefix = prefix;
+        for (int i = 0; i < BUCKETS; i++) {
+            latencyHistogram[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void recordRoute(long nanos) {
+        routeCount.increment();
+        routeNanos.add(nanos);
+    }
+
+    @Override
+    public void recordSuccess(long nanos) {
+        recordLatency(nanos);
+    }
+
+    @Override
+    public void recordError(long nanos, Throwable error) {
+        errorCount.increment();
+        recordLatency(nanos);
+    }
+
+    @Override
+    public void recordRouteMiss() {
+        routeMissCount.increment();
+    }
+
+    @Override
+    public void recordRejected() {
+        rejectedCount.increment();
+    }
+
+    private void recordLatency(long nanos) {
+        callCount.increment();
+        latencyNanos.add(nanos);
+        latencyHistogram[bucket(nanos)].increment();
+    }
+
+    /**
+     * 耗时所在的桶，桶i的范围为[2^(i-1), 2^i)
+     *
+     * @param nanos
+     * @return
+     */
+    private static int bucket(long nanos) {
+        int bucket = 64 - Long.numberOfLeadingZeros(Math.max(nanos, 0L));
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    /**
+     * 估算耗时分位数，返回所在桶的上界
+     *
+     * @param quantile 0~1
+     * @return 纳秒
+     */
+    public long getLatencyQuantile(double quantile) {
+        long[] counts = getLatencyHistogram();
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i == 0 ? 0 : (1L << i) - 1;
+            }
+        }
+        return (1L << (BUCKETS - 1)) - 1;
+    }
+
+    /**
+     * 耗时直方图快照
+     *
+     * @return 每个桶的调用次数
+     */
+    public long[] getLatencyHistogram() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = latencyHistogram[i].sum();
+        }
+        return counts;
+    }
+
+    public Class<?> getServiceInterface() {
+        return serviceInterface;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public long getCallCount() {
+        return callCount.sum();
+    }
+
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    public long getRouteMissCount() {
+        return routeMissCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos.sum();
+    }
+
+    public long getRouteCount() {
+        return routeCount.sum();
+    }
+
+    public long getRouteNanos() {
+        return routeNanos.sum();
+    }
+
+    @Override
+    public String toString() {
+        return serviceInterface.getSimpleName() + "#" + method.getName() + "[" + prefix + "] calls="
+                + getCallCount() + ", errors=" + getErrorCount() + ", routeMisses=" + getRouteMissCount() + ", rejected="
+                + getRejectedCount() + ", p99="
+                + getLatencyQuantile(0.99) + "ns";
+    }
+}
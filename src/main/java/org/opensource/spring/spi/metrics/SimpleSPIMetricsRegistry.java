@@ -0,0 +1,94 @@
+package org.opensource.spring.spi.metrics;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 内存指标注册表
+ *
+ * 默认的指标实现，按(接口, 方法, prefix)保存{@link SimpleSPIDispatchMetrics}，需要业务自行声明为bean：
+ *
+ * <pre>
+ * &#64;Bean
+ * public SPIMetricsRegistry spiMetricsRegistry() {
+ *     return new SimpleSPIMetricsRegistry();
+ * }
+ * </pre>
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public class SimpleSPIMetricsRegistry implements SPIMetricsRegistry {
+    /**
+     * 指标
+     */
+    private final ConcurrentMap<Key, SimpleSPIDispatchMetrics> metrics = new ConcurrentHashMap<>();
+
+    @Override
+    public SimpleSPIDispatchMetrics getMetrics(Class<?> serviceInterface, Method method, String prefix) {
+        return metrics.computeIfAbsent(new Key(serviceInterface, method, prefix),
+                key -> new SimpleSPIDispatchMetrics(serviceInterface, method, prefix));
+    }
+
+    /**
+     * 获取已采集的全部指标
+     *
+     * @return
+     */
+    public Map<Key, SimpleSPIDispatchMetrics> getMetrics() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    /**
+     * 指标key
+     */
+    public static final class Key {
+        private final Class<?> serviceInterface;
+        private final Method method;
+        private final String prefix;
+
+        Key(Class<?> serviceInterface, Method method, String prefix) {
+            this.serviceInterface = serviceInterface;
+            this.method = method;
+            this.prefix = prefix;
+        }
+
+        public Class<?> getServiceInterface() {
+            return serviceInterface;
+        }
+
+        public Method getMethod() {
+            return method;
+        }
+
+        public String getPrefix() {
+            return prefix;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return serviceInterface == other.serviceInterface && method.equals(other.method)
+                    && prefix.equals(other.prefix);
+        }
+
+        @Override
+        public int hashCode() {
+            return (serviceInterface.hashCode() * 31 + method.hashCode()) * 31 + prefix.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return serviceInterface.getSimpleName() + "#" + method.getName() + "[" + prefix + "]";
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package org.opensource.spring.spi.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+import org.opensource.spring.spi.SPIScanRegister;
+import org.opensource.spring.spi.annotation.SPI;
+import org.opensource.spring.spi.proxy.SPIProxy;
+import org.opensource.spring.spi.proxy.SPIProxyFactory;
+
+/**
+ * SPI静态代理生成器
+ *
+ * 编译期注解处理器，为每个{@link SPI}注解的接口生成一个"接口名$SPIProxy"的静态代理类。
+ * 生成的代理直接实现接口方法，路由后直接调用目标bean，不经过AOP拦截链和反射：
+ *
+ * <pre>
+ * public String sayHello(BaseParam p0) {
+ *     return (String) factory.dispatch(M0, this, new Object[] { p0 }, t -> ((TestService) t).sayHello(p0));
+ * }
+ * </pre>
+ *
+ * 该处理器默认不启用，需要在编译配置中显式指定，如maven-compiler-plugin的annotationProcessors。
+ * 通过处理器参数{@code -Aspi.proxy.packages=包名,包名}可以只为指定包(含子包)下的接口生成，未配置时生成所有接口。
+ * {@link SPIProxyFactory}在类路径下发现生成的代理时会优先使用。
+ *
+ * 同时把本次编译的所有{@link SPI}接口(不受包名参数和generateProxy限制)写入{@link SPIScanRegister#INDEX_LOCATION}索引，
+ * 配置{@code @SPIScan(useIndex = true)}时启动读取索引，不再遍历类路径。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public class SPIProxyProcessor extends AbstractProcessor {
+    /**
+     * 处理器参数，生成代理的包名，逗号分隔
+     */
+    public static final String PACKAGES_OPTION = "spi.proxy.packages";
+
+    /**
+     * 本次编译的SPI接口，最后一轮写入索引
+     */
+    private final Set<String> indexed = new TreeSet<>();
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return Collections.singleton(PACKAGES_OPTION);
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(SPI.class.getName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(SPI.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                continue;
+            }
+            TypeElement ifc = (TypeElement) element;
+            // 与启动扫描一致，只索引顶层和成员接口
+            if (ifc.getNestingKind() == NestingKind.TOP_LEVEL || ifc.getNestingKind() == NestingKind.MEMBER) {
+                indexed.add(processingEnv.getElementUtils().getBinaryName(ifc).toString());
+            }
+            SPI spi = ifc.getAnnotation(SPI.class);
+            if (spi != null && !spi.generateProxy()) {
+                continue;
+            }
+            if (!isIncluded(ifc)) {
+                continue;
+            }
+            if (ifc.getModifiers().contains(Modifier.PRIVATE)
+                    || ifc.getNestingKind() == NestingKind.LOCAL) {
+                note(ifc, "SPI proxy skipped, interface is not accessible");
+                continue;
+            }
+            try {
+                generate(ifc);
+            } catch (UnsupportedOperationException e) {
+                note(ifc, "SPI proxy skipped, " + e.getMessage());
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "SPI proxy generate failed: " + e.getMessage(), ifc);
+            }
+        }
+        if (roundEnv.processingOver() && !indexed.isEmpty()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    /**
+     * 写入SPI接口索引
+     */
+    private void writeIndex() {
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    SPIScanRegister.INDEX_LOCATION);
+            try (Writer writer = file.openWriter()) {
+                for (String className : indexed) {
+                    writer.write(className);
+                    writer.write("\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "SPI index write failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 接口是否在{@link #PACKAGES_OPTION}指定的包下
+     *
+     * @param ifc
+     * @return 未配置时返回true
+     */
+    private boolean isIncluded(TypeElement ifc) {
+        String packages = processingEnv.getOptions().get(PACKAGES_OPTION);
+        if (packages == null || packages.trim().isEmpty()) {
+            return true;
+        }
+        String packageName = processingEnv.getElementUtils().getPackageOf(ifc).getQualifiedName().toString();
+        for (String pkg : packages.split(",")) {
+            pkg = pkg.trim();
+            if (!pkg.isEmpty() && (packageName.equals(pkg) || packageName.startsWith(pkg + "."))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 生成静态代理源文件
+     *
+     * @param ifc
+     * @throws IOException
+     */
+    private void generate(TypeElement ifc) throws IOException {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(ifc);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(ifc).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                + SPIProxy.CLASS_SUFFIX;
+        String ifcType = ifc.asType().toString();
+        String ifcRaw = ifc.getQualifiedName().toString();
+
+        List<ExecutableElement> methods = getProxyMethods(ifc);
+        StringBuilder sb = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+        sb.append("/**\n")
+                .append(" * SPI static proxy of {@link ").append(ifcRaw).append("}, generated by ")
+                .append(SPIProxyProcessor.class.getSimpleName()).append(", do not edit.\n")
+                .append(" */\n");
+        sb.append("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })\n");
+        sb.append("public final class ").append(simpleName).append(typeParameters(ifc.getTypeParameters()))
+                .append(" implements ").append(ifcType).append(", ").append(SPIProxy.class.getName()).append(" {\n");
+
+        // 接口方法
+        for (int i = 0; i < methods.size(); i++) {
+            ExecutableElement method = methods.get(i);
+            sb.append("    private static final java.lang.reflect.Method M").append(i).append(" = ")
+                    .append(SPIProxyFactory.class.getName()).append(".findMethod(").append(ifcRaw)
+                    .append(".class, \"").append(method.getSimpleName()).append("\"");
+            for (VariableElement param : method.getParameters()) {
+                sb.append(", ").append(processingEnv.getTypeUtils().erasure(param.asType())).append(".class");
+            }
+            sb.append(");\n");
+        }
+        sb.append("\n    private final ").append(SPIProxyFactory.class.getName()).append(" factory;\n\n");
+        sb.append("    public ").append(simpleName).append("(").append(SPIProxyFactory.class.getName())
+                .append(" factory) {\n        this.factory = factory;\n    }\n\n");
+        sb.append("    @Override\n    public ").append(SPIProxyFactory.class.getName())
+                .append(" getSpiProxyFactory() {\n        return factory;\n    }\n");
+
+        for (int i = 0; i < methods.size(); i++) {
+            sb.append("\n");
+            generateMethod(sb, (DeclaredType) ifc.asType(), ifcType, methods.get(i), i);
+        }
+        sb.append("\n    @Override\n    public String toString() {\n        return \"").append(simpleName)
+                .append("[\" + factory.getSpiRouter() + \"]\";\n    }\n");
+        sb.append("}\n");
+
+        String className = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(className, ifc);
+        try (Writer writer = file.openWriter()) {
+            writer.write(sb.toString());
+        }
+    }
+
+    /**
+     * 生成单个代理方法
+     *
+     * @param sb
+     * @param ifcDeclared
+     * @param ifcType
+     * @param method
+     * @param index
+     */
+    private void generateMethod(StringBuilder sb, DeclaredType ifcDeclared, String ifcType,
+            ExecutableElement method, int index) {
+        ExecutableType type = (ExecutableType) processingEnv.getTypeUtils().asMemberOf(ifcDeclared, method);
+        TypeMirror returnType = type.getReturnType();
+        List<? extends TypeMirror> paramTypes = type.getParameterTypes();
+
+        // 方法签名
+        sb.append("    @Override\n    public ");
+        if (!method.getTypeParameters().isEmpty()) {
+            sb.append(typeParameters(method.getTypeParameters())).append(" ");
+        }
+        sb.append(returnType).append(" ").append(method.getSimpleName()).append("(");
+        StringBuilder args = new StringBuilder();
+        for (int i = 0; i < paramTypes.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+                args.append(", ");
+            }
+            TypeMirror paramType = paramTypes.get(i);
+            if (method.isVarArgs() && i == paramTypes.size() - 1) {
+                sb.append(paramType.toString().replaceFirst("\\[\\]$", "...")).append(" p").append(i);
+            } else {
+                sb.append(paramType).append(" p").append(i);
+            }
+            args.append("p").append(i);
+        }
+        sb.append(")");
+        List<String> checked = checkedExceptions(type.getThrownTypes());
+        if (!type.getThrownTypes().isEmpty()) {
+            sb.append(" throws ");
+            for (int i = 0; i < type.getThrownTypes().size(); i++) {
+                sb.append(i > 0 ? ", " : "").append(type.getThrownTypes().get(i));
+            }
+        }
+        sb.append(" {\n");
+
+        // 方法体
+        boolean isVoid = returnType.getKind() == TypeKind.VOID;
+        boolean rethrowAll = checked == null;
+        String indent = rethrowAll ? "        " : "            ";
+        if (!rethrowAll) {
+            sb.append("        try {\n");
+        }
+        String call = "((" + ifcType + ") t)." + method.getSimpleName() + "(" + args + ")";
+        String dispatch = "factory.dispatch(M" + index + ", this, new Object[] { " + args + " }, t -> "
+                + (isVoid ? "{\n" + indent + "        " + call + ";\n" + indent + "        return null;\n" + indent
+                        + "    }" : call)
+                + ")";
+        if (isVoid) {
+            sb.append(indent).append(dispatch).append(";\n");
+        } else {
+            sb.append(indent).append("return (").append(returnType).append(") ").append(dispatch).append(";\n");
+        }
+        if (!rethrowAll) {
+            sb.append("        } catch (RuntimeException e) {\n            throw e;\n")
+                    .append("        } catch (Error e) {\n            throw e;\n");
+            for (String exception : checked) {
+                sb.append("        } catch (").append(exception).append(" e) {\n            throw e;\n");
+            }
+            sb.append("        } catch (Throwable e) {\n")
+                    .append("            throw new java.lang.reflect.UndeclaredThrowableException(e);\n")
+                    .append("        }\n");
+        }
+        sb.append("    }\n");
+    }
+
+    /**
+     * 需要代理的接口方法，包括继承的方法和default方法，不包括静态方法和Object的方法
+     *
+     * @param ifc
+     * @return
+     */
+    private List<ExecutableElement> getProxyMethods(TypeElement ifc) {
+        List<ExecutableElement> methods = new ArrayList<>();
+        Set<String> signatures = new HashSet<>();
+        for (ExecutableElement method : ElementFilter
+                .methodsIn(processingEnv.getElementUtils().getAllMembers(ifc))) {
+            Element owner = method.getEnclosingElement();
+            if (method.getModifiers().contains(Modifier.STATIC) || method.getModifiers().contains(Modifier.PRIVATE)
+                    || owner.getKind() != ElementKind.INTERFACE) {
+                continue;
+            }
+            // 多个父接口声明了相同签名的方法时只生成一次
+            StringBuilder signature = new StringBuilder(method.getSimpleName());
+            for (VariableElement param : method.getParameters()) {
+                signature.append(',').append(processingEnv.getTypeUtils().erasure(param.asType()));
+            }
+            if (signatures.add(signature.toString())) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * 需要原样抛出的受检异常，声明了Throwable时返回null
+     *
+     * @param thrownTypes
+     * @return
+     */
+    private List<String> checkedExceptions(List<? extends TypeMirror> thrownTypes) {
+        TypeMirror throwable = processingEnv.getElementUtils().getTypeElement(Throwable.class.getName()).asType();
+        TypeMirror runtime = processingEnv.getElementUtils().getTypeElement(RuntimeException.class.getName())
+                .asType();
+        TypeMirror error = processingEnv.getElementUtils().getTypeElement(Error.class.getName()).asType();
+        List<String> checked = new ArrayList<>();
+        for (TypeMirror thrown : thrownTypes) {
+            if (thrown.getKind() == TypeKind.TYPEVAR) {
+                throw new UnsupportedOperationException("generic exception is not supported: " + thrown);
+            }
+            if (processingEnv.getTypeUtils().isSameType(thrown, throwable)) {
+                return null;
+            }
+            if (processingEnv.getTypeUtils().isSubtype(thrown, runtime)
+                    || processingEnv.getTypeUtils().isSubtype(thrown, error)) {
+                continue;
+            }
+            // 父类异常已经声明时，子类异常不需要单独catch
+            boolean covered = false;
+            for (TypeMirror other : thrownTypes) {
+                if (other != thrown && !processingEnv.getTypeUtils().isSameType(other, thrown)
+                        && processingEnv.getTypeUtils().isSubtype(thrown, other)) {
+                    covered = true;
+                    break;
+                }
+            }
+            if (!covered && !checked.contains(thrown.toString())) {
+                checked.add(thrown.toString());
+            }
+        }
+        return checked;
+    }
+
+    /**
+     * 泛型参数声明
+     *
+     * @param typeParameters
+     * @return
+     */
+    private String typeParameters(List<? extends TypeParameterElement> typeParameters) {
+        if (typeParameters.isEmpty()) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder("<");
+        for (int i = 0; i < typeParameters.size(); i++) {
+            TypeParameterElement typeParameter = typeParameters.get(i);
+            sb.append(i > 0 ? ", " : "").append(typeParameter.getSimpleName());
+            List<? extends TypeMirror> bounds = typeParameter.getBounds();
+            if (!bounds.isEmpty() && !(bounds.size() == 1 && Object.class.getName().equals(bounds.get(0).toString()))) {
+                sb.append(" extends ");
+                for (int j = 0; j < bounds.size(); j++) {
+                    sb.append(j > 0 ? " & " : "").append(bounds.get(j));
+                }
+            }
+        }
+        return sb.append(">").toString();
+    }
+
+    private void note(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, element);
+    }
+}
@@ -0,0 +1,216 @@
+package org.opensource.spring.spi.proxy;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.cglib.core.ReflectUtils;
+import org.springframework.util.ClassUtils;
+
+/**
+ * 字节码调用器生成器
+ *
+ * 使用spring-core内置的ASM，为每个(实现类, 方法)生成一个直接调用目标方法的{@link SPIInvoker}实现类，
+ * 生成的代码等价于：
+ *
+ * <pre>
+ * public Object invoke(Object target, Object[] args) {
+ *     return ((TestServiceImpl) target).sayHello((BaseParam) args[0]);
+ * }
+ * </pre>
+ *
+ * 没有参数装箱以外的反射开销，也不会包装异常，JIT可以内联到实现方法。
+ * 生成的类定义在实现类的包和类加载器中，无法生成(类型不可访问、类加载器不可见等)时返回null，由调用方退化为反射调用。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public final class BytecodeSPIInvokerGenerator implements Opcodes {
+    private static final Logger log = LoggerFactory.getLogger(BytecodeSPIInvokerGenerator.class);
+
+    private static final String OBJECT = Type.getInternalName(Object.class);
+    private static final String INVOKER = Type.getInternalName(SPIInvoker.class);
+    private static final String INVOKE_DESC = Type.getMethodDescriptor(Type.getType(Object.class),
+            Type.getType(Object.class), Type.getType(Object[].class));
+
+    /**
+     * 生成类的序号
+     */
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+    /**
+     * 已生成的调用器，同一个(实现类, 方法)只生成一次。
+     * 调用器强引用保存在实现类上，不会因为内存紧张被回收后重复生成，实现类卸载时一起回收
+     */
+    private static final ClassValue<ConcurrentMap<Method, SPIInvoker>> INVOKERS =
+            new ClassValue<ConcurrentMap<Method, SPIInvoker>>() {
+                @Override
+                protected ConcurrentMap<Method, SPIInvoker> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private BytecodeSPIInvokerGenerator() {
+    }
+
+    /**
+     * 获取目标方法的字节码调用器
+     *
+     * @param owner  调用目标方法的类型，通常为实现类
+     * @param method owner上可调用的目标方法
+     * @return 字节码调用器，无法生成时返回null
+     */
+    public static SPIInvoker generate(Class<?> owner, Method method) {
+        ConcurrentMap<Method, SPIInvoker> invokers = INVOKERS.get(owner);
+        SPIInvoker invoker = invokers.get(method);
+        if (invoker != null) {
+            return invoker;
+        }
+        if (!isAccessible(owner, method)) {
+            log.debug("SPI bytecode invoker skipped, inaccessible types: {}", method);
+            return null;
+        }
+        try {
+            invoker = define(owner, method);
+        } catch (Throwable e) {
+            log.warn("SPI bytecode invoker generate failed: {}, fallback to reflection", method, e);
+            return null;
+        }
+        SPIInvoker exist = invokers.putIfAbsent(method, invoker);
+        return exist != null ? exist : invoker;
+    }
+
+    /**
+     * 生成并加载调用器类
+     *
+     * @param owner
+     * @param method
+     * @return
+     * @throws Exception
+     */
+    private static SPIInvoker define(Class<?> owner, Method method) throws Exception {
+        String className = owner.getName() + "$$SPIInvoker$$" + COUNTER.incrementAndGet();
+        String internalName = className.replace('.', '/');
+        String ownerName = Type.getInternalName(owner);
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC, internalName, null, OBJECT,
+                new String[] { INVOKER });
+
+        // 构造函数
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        // invoke(Object target, Object[] args)
+        mv = cw.visitMethod(ACC_PUBLIC, "invoke", INVOKE_DESC, null,
+                new String[] { Type.getInternalName(Throwable.class) });
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitTypeInsn(CHECKCAST, ownerName);
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitLdcInsn(i);
+            mv.visitInsn(AALOAD);
+            unbox(mv, parameterTypes[i]);
+        }
+        boolean isInterface = owner.isInterface();
+        mv.visitMethodInsn(isInterface ? INVOKEINTERFACE : INVOKEVIRTUAL, ownerName, method.getName(),
+                Type.getMethodDescriptor(method), isInterface);
+        box(mv, method.getReturnType());
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        cw.visitEnd();
+
+        Class<?> invokerClass = ReflectUtils.defineClass(className, cw.toByteArray(), owner.getClassLoader(),
+                owner.getProtectionDomain(), owner);
+        log.debug("SPI bytecode invoker generated: {} -> {}", method, className);
+        return (SPIInvoker) invokerClass.getDeclaredConstructor().newInstance();
+    }
+
+    /**
+     * 参数从Object转换为目标类型
+     *
+     * @param mv
+     * @param type
+     */
+    private static void unbox(MethodVisitor mv, Class<?> type) {
+        if (!type.isPrimitive()) {
+            if (type != Object.class) {
+                mv.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
+            }
+            return;
+        }
+        Class<?> wrapper = ClassUtils.resolvePrimitiveIfNecessary(type);
+        mv.visitTypeInsn(CHECKCAST, Type.getInternalName(wrapper));
+        mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(wrapper), type.getName() + "Value",
+                Type.getMethodDescriptor(Type.getType(type)), false);
+    }
+
+    /**
+     * 返回值转换为Object，void返回null
+     *
+     * @param mv
+     * @param type
+     */
+    private static void box(MethodVisitor mv, Class<?> type) {
+        if (type == void.class) {
+            mv.visitInsn(ACONST_NULL);
+        } else if (type.isPrimitive()) {
+            Class<?> wrapper = ClassUtils.resolvePrimitiveIfNecessary(type);
+            mv.visitMethodInsn(INVOKESTATIC, Type.getInternalName(wrapper), "valueOf",
+                    Type.getMethodDescriptor(Type.getType(wrapper), Type.getType(type)), false);
+        }
+    }
+
+    /**
+     * 生成类定义在owner的包内，检查方法签名中的类型是否都可以访问
+     *
+     * @param owner
+     * @param method
+     * @return
+     */
+    private static boolean isAccessible(Class<?> owner, Method method) {
+        if (owner.getClassLoader() == null || !Modifier.isPublic(method.getModifiers())) {
+            return false;
+        }
+        for (Class<?> type : method.getParameterTypes()) {
+            if (!isAccessible(owner, type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAccessible(Class<?> owner, Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) {
+            return true;
+        }
+        if (ClassUtils.getPackageName(type).equals(ClassUtils.getPackageName(owner))
+                && type.getClassLoader() == owner.getClassLoader()) {
+            return true;
+        }
+        for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,38 @@
+package org.opensource.spring.spi.proxy;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * 基于反射的方法调用器
+ *
+ * 使用{@link Method#invoke(Object, Object...)}调用目标方法，并解开{@link InvocationTargetException}，
+ * 保证业务可以捕获到原始异常。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public class ReflectionSPIInvoker implements SPIInvoker {
+    /**
+     * 目标方法
+     */
+    private final Method method;
+
+    public ReflectionSPIInvoker(Method method) {
+        this.method = method;
+    }
+
+    @Override
+    public Object invoke(Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ReflectionSPIInvoker[" + method + "]";
+    }
+}
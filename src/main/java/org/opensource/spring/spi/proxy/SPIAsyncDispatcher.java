@@ -0,0 +1,189 @@
+package org.opensource.spring.spi.proxy;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import org.opensource.spring.spi.annotation.SPIAsync;
+import org.opensource.spring.spi.metrics.SPIDispatchMetrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.StringUtils;
+
+import com.alibaba.ttl.TransmittableThreadLocal.Transmitter;
+
+/**
+ * SPI异步分发
+ *
+ * 按接口方法创建，处理{@link SPIAsync}注解的方法：
+ * 捕获调用线程的TransmittableThreadLocal快照，在线程池中回放后调用目标方法，
+ * 返回的future在回放的上下文中完成。
+ *
+ * 未注解的方法返回{@link CompletionStage}时不包装，原样返回实现的future，只在完成时采集指标、释放并发额度。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+final class SPIAsyncDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(SPIAsyncDispatcher.class);
+
+    /**
+     * 执行目标方法的线程池
+     */
+    private final Executor executor;
+    /**
+     * 方法是否返回future
+     */
+    private final boolean future;
+
+    private SPIAsyncDispatcher(Executor executor, boolean future) {
+        this.executor = executor;
+        this.future = future;
+    }
+
+    /**
+     * 创建方法的异步分发
+     *
+     * @param method             接口方法
+     * @param applicationContext
+     * @return 未注解{@link SPIAsync}的方法返回null
+     */
+    static SPIAsyncDispatcher forMethod(Method method, ApplicationContext applicationContext) {
+        SPIAsync async = AnnotatedElementUtils.findMergedAnnotation(method, SPIAsync.class);
+        if (async == null) {
+            return null;
+        }
+        Class<?> returnType = method.getReturnType();
+        boolean future = returnType == CompletableFuture.class || returnType == CompletionStage.class;
+        if (!future && returnType != void.class) {
+            throw new IllegalStateException(
+                    "@SPIAsync method must return void, CompletableFuture or CompletionStage: " + method);
+        }
+        return new SPIAsyncDispatcher(getExecutor(async.executor(), applicationContext), future);
+    }
+
+    private static Executor getExecutor(String beanName, ApplicationContext applicationContext) {
+        if (StringUtils.hasText(beanName)) {
+            return applicationContext.getBean(beanName, Executor.class);
+        }
+        if (applicationContext.containsBean(SPIAsync.DEFAULT_EXECUTOR)) {
+            return applicationContext.getBean(SPIAsync.DEFAULT_EXECUTOR, Executor.class);
+        }
+        return ForkJoinPool.commonPool();
+    }
+
+    /**
+     * 分发调用
+     *
+     * @param call    目标方法调用
+     * @param metrics 分发指标，为null时不采集
+     * @param start    开始调用的时间，纳秒
+     * @param bulkhead 已获取额度的隔离舱，调用完成时释放，为null时不限制
+     * @return void方法返回null，否则返回future
+     * @throws Throwable 同步调用目标方法抛出的异常
+     */
+    Object dispatch(Call call, SPIDispatchMetrics metrics, long start, SPIBulkhead bulkhead) throws Throwable {
+        Completion completion = new Completion(metrics, start, bulkhead);
+        Object captured = Transmitter.capture();
+        CompletableFuture<Object> result = future ? new CompletableFuture<>() : null;
+        try {
+            executor.execute(() -> Transmitter.runSupplierWithCaptured(captured, () -> {
+                try {
+                    Object value = call.call();
+                    if (result == null) {
+                        completion.done(null);
+                    } else if (value == null) {
+                        completion.done(null);
+                        result.complete(null);
+                    } else {
+                        complete((CompletionStage<?>) value, result, captured, completion);
+                    }
+                } catch (Throwable e) {
+                    completion.done(e);
+                    if (result == null) {
+                        log.error("SPI async invoke failed", e);
+                    } else {
+                        result.completeExceptionally(e);
+                    }
+                }
+                return null;
+            }));
+        } catch (RuntimeException e) {
+            // 线程池拒绝
+            completion.done(e);
+            throw e;
+        }
+        return result;
+    }
+
+    /**
+     * 未注解{@link SPIAsync}的方法，在实现返回的future完成时采集指标、释放并发额度，不改变返回的future
+     *
+     * @param stage    实现返回的future
+     * @param metrics  分发指标，为null时不采集
+     * @param start    开始调用的时间，纳秒
+     * @param bulkhead 已获取额度的隔离舱，future完成时释放，为null时不限制
+     */
+    static void whenComplete(CompletionStage<?> stage, SPIDispatchMetrics metrics, long start, SPIBulkhead bulkhead) {
+        Completion completion = new Completion(metrics, start, bulkhead);
+        stage.whenComplete((value, e) -> completion.done(e));
+    }
+
+    /**
+     * 目标方法返回的future完成后，在捕获的上下文中完成代理返回的future
+     */
+    private static void complete(CompletionStage<?> stage, CompletableFuture<Object> result, Object captured,
+            Completion completion) {
+        stage.whenComplete((value, e) -> Transmitter.runSupplierWithCaptured(captured, () -> {
+            completion.done(e);
+            if (e != null) {
+                result.completeExceptionally(e);
+            } else {
+                result.complete(value);
+            }
+            return null;
+        }));
+    }
+
+    /**
+     * 调用完成，采集指标并释放并发额度
+     */
+    private static final class Completion {
+        private final SPIDispatchMetrics metrics;
+        private final long start;
+        private final SPIBulkhead bulkhead;
+
+        Completion(SPIDispatchMetrics metrics, long start, SPIBulkhead bulkhead) {
+            this.metrics = metrics;
+            this.start = start;
+            this.bulkhead = bulkhead;
+        }
+
+        void done(Throwable e) {
+            if (bulkhead != null) {
+                bulkhead.release();
+            }
+            if (metrics == null) {
+                return;
+            }
+            if (e == null) {
+                metrics.recordSuccess(System.nanoTime() - start);
+            } else {
+                metrics.recordError(System.nanoTime() - start, e);
+            }
+        }
+    }
+
+    /**
+     * 目标方法调用
+     */
+    @FunctionalInterface
+    interface Call {
+        Object call() throws Throwable;
+    }
+}
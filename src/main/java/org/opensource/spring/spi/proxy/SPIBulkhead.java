@@ -0,0 +1,90 @@
+package org.opensource.spring.spi.proxy;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SPI隔离舱
+ *
+ * 限制单个(接口, prefix)的并发调用数，某个实现变慢时只占用自己的并发额度，不会耗尽所有业务线程，影响同接口的其他prefix。
+ * 超过并发上限时，按配置的最大等待时间等待，等待超时抛出{@link SPIRejectedException}，最大等待时间为0时立即拒绝。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public final class SPIBulkhead {
+    /**
+     * 扩展服务接口
+     */
+    private final Class<?> serviceInterface;
+    /**
+     * 路由prefix
+     */
+    private final String prefix;
+    /**
+     * 最大并发数
+     */
+    private final int maxConcurrency;
+    /**
+     * 最大等待时间，纳秒
+     */
+    private final long maxWaitNanos;
+    /**
+     * 并发额度
+     */
+    private final Semaphore semaphore;
+
+    public SPIBulkhead(Class<?> serviceInterface, String prefix, int maxConcurrency, long maxWaitMillis) {
+        this.serviceInterface = serviceInterface;
+        this.prefix = prefix;
+        this.maxConcurrency = maxConcurrency;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(maxWaitMillis, 0L));
+        this.semaphore = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * 获取并发额度
+     *
+     * @throws SPIRejectedException 超过并发上限且等待超时，或者等待时线程被中断
+     */
+    public void acquire() {
+        if (semaphore.tryAcquire()) {
+            return;
+        }
+        boolean acquired = false;
+        if (maxWaitNanos > 0) {
+            try {
+                acquired = semaphore.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!acquired) {
+            throw new SPIRejectedException(serviceInterface, prefix, maxConcurrency);
+        }
+    }
+
+    /**
+     * 释放并发额度
+     */
+    public void release() {
+        semaphore.release();
+    }
+
+    /**
+     * 当前可用的并发额度
+     *
+     * @return
+     */
+    public int getAvailable() {
+        return semaphore.availablePermits();
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+}
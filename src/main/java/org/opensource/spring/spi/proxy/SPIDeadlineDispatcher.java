@@ -0,0 +1,354 @@
+package org.opensource.spring.spi.proxy;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import org.opensource.spring.spi.annotation.SPIAsync;
+import org.opensource.spring.spi.annotation.SPIDeadline;
+import org.opensource.spring.spi.metrics.SPIDispatchMetrics;
+import org.opensource.spring.spi.router.SPIUtil;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.StringUtils;
+
+import com.alibaba.ttl.threadpool.TtlExecutors;
+
+/**
+ * SPI时限分发
+ *
+ * 按接口方法创建，处理{@link SPIDeadline}注解的方法：在线程池中调用目标实现，调用线程按时限等待，
+ * 开启对冲时，超过对冲延迟再调用对冲prefix的实现，两个调用在完成时竞争，取先成功的结果，不占用额外的等待线程。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+final class SPIDeadlineDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(SPIDeadlineDispatcher.class);
+
+    /**
+     * 共享线程池，第一次使用时创建
+     */
+    private static volatile ExecutorService sharedExecutor;
+
+    /**
+     * 分发表，解析对冲prefix的目标
+     */
+    private final SPIDispatchTable table;
+    /**
+     * 执行调用的线程池，传递TransmittableThreadLocal
+     */
+    private final ExecutorService executor;
+    private final long timeoutNanos;
+    private final long hedgeDelayNanos;
+    private final String hedgePrefix;
+
+    private SPIDeadlineDispatcher(SPIDispatchTable table, ExecutorService executor, SPIDeadline deadline) {
+        this.table = table;
+        this.executor = executor;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(deadline.timeoutMillis());
+        this.hedgeDelayNanos = deadline.hedgeDelayMillis() < 0 ? -1L
+                : TimeUnit.MILLISECONDS.toNanos(deadline.hedgeDelayMillis());
+        this.hedgePrefix = deadline.hedgePrefix();
+    }
+
+    /**
+     * 创建方法的时限分发
+     *
+     * @param method             接口方法
+     * @param table              分发表
+     * @param applicationContext
+     * @return 未注解时返回null
+     */
+    static SPIDeadlineDispatcher forMethod(Method method, SPIDispatchTable table,
+            ApplicationContext applicationContext) {
+        SPIDeadline deadline = AnnotatedElementUtils.findMergedAnnotation(method, SPIDeadline.class);
+        if (deadline == null) {
+            return null;
+        }
+        if (AnnotatedElementUtils.hasAnnotation(method, SPIAsync.class)) {
+            throw new IllegalStateException("@SPIDeadline can not be used with @SPIAsync: " + method);
+        }
+        if (deadline.timeoutMillis() <= 0) {
+            throw new IllegalStateException("@SPIDeadline timeoutMillis must be positive: " + method);
+        }
+        ExecutorService executor = StringUtils.hasText(deadline.executor())
+                ? TtlExecutors.getTtlExecutorService(
+                        applicationContext.getBean(deadline.executor(), ExecutorService.class))
+                : getSharedExecutor();
+        return new SPIDeadlineDispatcher(table, executor, deadline);
+    }
+
+    /**
+     * 共享线程池，守护线程，空闲回收
+     *
+     * @return
+     */
+    private static ExecutorService getSharedExecutor() {
+        ExecutorService executor = sharedExecutor;
+        if (executor == null) {
+            synchronized (SPIDeadlineDispatcher.class) {
+                executor = sharedExecutor;
+                if (executor == null) {
+                    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("spi-deadline-");
+                    threadFactory.setDaemon(true);
+                    executor = TtlExecutors.getTtlExecutorService(Executors.newCachedThreadPool(threadFactory));
+                    sharedExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * 分发调用
+     *
+     * 超时或者对冲胜出后，未完成的调用会被中断，并发额度在工作线程真正结束时释放。
+     *
+     * @param target     路由到的目标
+     * @param invocation 方法调用
+     * @param call       目标bean直接调用，为null时使用分发表中的调用器
+     * @param bulkhead   已获取额度的隔离舱，由本方法在调用结束时释放，可以为null
+     * @return
+     * @throws Throwable 目标方法抛出的原始异常，超时或者等待时被中断抛出{@link SPITimeoutException}
+     */
+    Object dispatch(SPIDispatchTarget target, MethodInvocation invocation, SPITargetCall call, SPIBulkhead bulkhead)
+            throws Throwable {
+        long deadline = System.nanoTime() + timeoutNanos;
+        Attempt primary = submit(new Attempt(target, invocation, call, bulkhead, null, null));
+        if (hedgeDelayNanos < 0 || hedgeDelayNanos >= timeoutNanos) {
+            return await(primary, deadline, target.getPrefix(), primary, null);
+        }
+
+        // 对冲延迟内返回
+        try {
+            return primary.get(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            primary.abandon();
+            throw interrupted(target.getPrefix(), e);
+        } catch (TimeoutException e) {
+            log.debug("SPI hedge: {} -> {}", target.getBeanName(), hedgePrefix);
+        }
+
+        // 对冲调用同样经过对冲实现的隔离舱和指标，不可用时只等待路由到的实现
+        Attempt hedge = submitHedge(invocation, call);
+        if (hedge == null) {
+            return await(primary, deadline, target.getPrefix(), primary, null);
+        }
+
+        // 两个调用在完成时竞争，取先成功的结果，都失败时抛出路由实现的异常
+        CompletableFuture<Object> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        BiConsumer<Object, Throwable> race = (result, error) -> {
+            if (error == null) {
+                winner.complete(result);
+            } else if (failures.incrementAndGet() == 2) {
+                primary.whenComplete((r, primaryError) -> winner.completeExceptionally(primaryError));
+            }
+        };
+        primary.whenComplete(race);
+        hedge.whenComplete(race);
+        return await(winner, deadline, target.getPrefix(), primary, hedge);
+    }
+
+    /**
+     * 解析对冲目标，获取并发额度后提交
+     *
+     * @return 对冲目标不可用或者被隔离舱拒绝时返回null
+     */
+    private Attempt submitHedge(MethodInvocation invocation, SPITargetCall call) {
+        SPIDispatchTarget hedge;
+        try {
+            hedge = table.resolve(invocation.getMethod(), hedgePrefix);
+        } catch (RuntimeException e) {
+            log.warn("SPI hedge target unavailable, prefix: {}", hedgePrefix, e);
+            return null;
+        }
+        SPIBulkhead bulkhead = hedge.getBulkhead();
+        if (bulkhead != null) {
+            try {
+                bulkhead.acquire();
+            } catch (SPIRejectedException e) {
+                if (hedge.getMetrics() != null) {
+                    hedge.getMetrics().recordRejected();
+                }
+                log.debug("SPI hedge rejected, prefix: {}", hedgePrefix);
+                return null;
+            }
+        }
+        return submit(new Attempt(hedge, invocation, call, bulkhead, hedge.getMetrics(), hedgePrefix));
+    }
+
+    /**
+     * 提交到线程池，线程池拒绝时释放并发额度
+     */
+    private Attempt submit(Attempt attempt) {
+        try {
+            executor.execute(attempt);
+        } catch (RuntimeException e) {
+            attempt.completeExceptionally(e);
+            attempt.finish();
+            throw e;
+        }
+        return attempt;
+    }
+
+    /**
+     * 按时限等待结果，返回或者超时后中断未完成的调用
+     */
+    private static Object await(CompletableFuture<Object> future, long deadline, String prefix, Attempt primary,
+            Attempt hedge) throws Throwable {
+        try {
+            return future.get(Math.max(deadline - System.nanoTime(), 0L), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            throw interrupted(prefix, e);
+        } catch (TimeoutException e) {
+            throw new SPITimeoutException("SPI call timeout, prefix: " + prefix, prefix);
+        } finally {
+            primary.abandon();
+            if (hedge != null) {
+                hedge.abandon();
+            }
+        }
+    }
+
+    /**
+     * 等待时调用线程被中断，恢复中断标记
+     */
+    private static SPITimeoutException interrupted(String prefix, InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return new SPITimeoutException("SPI call interrupted, prefix: " + prefix, prefix, e);
+    }
+
+    private static Object invoke(SPIDispatchTarget target, MethodInvocation invocation, SPITargetCall call)
+            throws Exception {
+        try {
+            return call != null ? call.call(target.getBean()) : target.invoke(invocation.getArguments());
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    /**
+     * 线程池中的一次调用
+     *
+     * 调用结束时完成future，再释放并发额度、采集指标；放弃时中断正在执行的线程，未开始的调用直接结束。
+     */
+    private static final class Attempt extends CompletableFuture<Object> implements Runnable {
+        private final SPIDispatchTarget target;
+        private final MethodInvocation invocation;
+        private final SPITargetCall call;
+        private final SPIBulkhead bulkhead;
+        /**
+         * 对冲调用的指标，路由到的实现由代理采集
+         */
+        private final SPIDispatchMetrics metrics;
+        /**
+         * 对冲调用在线程池中切换到对冲prefix
+         */
+        private final String prefix;
+        private final long start = System.nanoTime();
+        private Thread runner;
+        private boolean abandoned;
+        /**
+         * 放弃时是否中断了执行线程
+         */
+        private boolean interrupted;
+
+        Attempt(SPIDispatchTarget target, MethodInvocation invocation, SPITargetCall call, SPIBulkhead bulkhead,
+                SPIDispatchMetrics metrics, String prefix) {
+            this.target = target;
+            this.invocation = invocation;
+            this.call = call;
+            this.bulkhead = bulkhead;
+            this.metrics = metrics;
+            this.prefix = prefix;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (abandoned) {
+                    completeExceptionally(new CancellationException());
+                    finish();
+                    return;
+                }
+                runner = Thread.currentThread();
+            }
+            try {
+                complete(prefix != null ? SPIUtil.withPrefix(prefix, this::invoke) : invoke());
+            } catch (Throwable e) {
+                Throwable error = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                completeExceptionally(error);
+                if (metrics != null) {
+                    metrics.recordError(System.nanoTime() - start, error);
+                }
+            } finally {
+                boolean clear;
+                synchronized (this) {
+                    runner = null;
+                    clear = interrupted;
+                }
+                // 只清除放弃时的中断标记，不影响线程池中的下一个任务；线程池关闭等其他来源的中断保留
+                if (clear) {
+                    Thread.interrupted();
+                }
+                finish();
+            }
+        }
+
+        private Object invoke() {
+            try {
+                Object result = SPIDeadlineDispatcher.invoke(target, invocation, call);
+                if (metrics != null) {
+                    metrics.recordSuccess(System.nanoTime() - start);
+                }
+                return result;
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }
+
+        /**
+         * 调用结束，释放并发额度
+         */
+        void finish() {
+            if (bulkhead != null) {
+                bulkhead.release();
+            }
+        }
+
+        /**
+         * 放弃调用，中断正在执行的线程
+         */
+        synchronized void abandon() {
+            abandoned = true;
+            if (runner != null && !isDone()) {
+                interrupted = true;
+                runner.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package org.opensource.spring.spi.proxy;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import org.opensource.spring.spi.annotation.SPIInvokerType;
+import org.opensource.spring.spi.metrics.SPIDispatchRecorder;
+import org.opensource.spring.spi.metrics.SPIMetricsRegistry;
+import org.opensource.spring.spi.router.SPIPrefix;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * SPI分发表
+ *
+ * 按(接口方法, prefix)缓存路由解析结果{@link SPIDispatchTarget}，
+ * 命中缓存时不再拼接beanName、查找bean和查找目标Method。
+ *
+ * 只缓存单例bean，原型等其他scope的bean每次调用仍从spring容器获取。
+ * 路由的prefix没有实现时，按{@link org.opensource.spring.spi.annotation.SPI#fallback()}依次尝试，结果同样缓存。
+ * 路由器返回驻留的{@link SPIPrefix}时，按prefix的id从数组直接取分发目标，不再哈希、比较字符串。
+ * 容器刷新或bean变更时，{@link SPIProxyRegistry}通知代理工厂丢弃分发表，下次调用时重建。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public class SPIDispatchTable {
+    private static final Logger log = LoggerFactory.getLogger(SPIDispatchTable.class);
+
+    /**
+     * 应用上下文
+     */
+    private final ApplicationContext applicationContext;
+    /**
+     * 目标方法调用方式
+     */
+    private final SPIInvokerType invokerType;
+    /**
+     * 扩展服务接口
+     */
+    private final Class<?> serviceInterface;
+    /**
+     * 指标注册表，为null时不采集指标
+     */
+    private final SPIMetricsRegistry metricsRegistry;
+    /**
+     * 路由的prefix没有实现时，依次尝试的prefix
+     */
+    private final String[] fallbackPrefixes;
+    /**
+     * 分发表，接口方法 -> (prefix -> 分发目标)
+     */
+    private final ConcurrentMap<Method, ConcurrentMap<String, SPIDispatchTarget>> table = new ConcurrentHashMap<>();
+    /**
+     * 按驻留prefix的id索引的分发表，接口方法 -> 分发目标数组
+     */
+    private final ConcurrentMap<Method, IndexedTargets> indexedTable = new ConcurrentHashMap<>();
+    /**
+     * 方法的异步分发，接口方法 -> 异步分发，同步方法为空
+     */
+    private final ConcurrentMap<Method, Optional<SPIAsyncDispatcher>> asyncDispatchers = new ConcurrentHashMap<>();
+    /**
+     * 方法的时限分发，接口方法 -> 时限分发，未限制的方法为空
+     */
+    private final ConcurrentMap<Method, Optional<SPIDeadlineDispatcher>> deadlineDispatchers =
+            new ConcurrentHashMap<>();
+    /**
+     * 获取prefix的隔离舱，由代理工厂持有，分发表重建时保留并发额度。为null时不限制并发
+     */
+    private Function<String, SPIBulkhead> bulkheads;
+    /**
+     * 分发记录器，为null时不记录
+     */
+    private SPIDispatchRecorder recorder;
+
+    public SPIDispatchTable(ApplicationContext applicationContext, Class<?> serviceInterface,
+            SPIInvokerType invokerType, SPIMetricsRegistry metricsRegistry) {
+        this(applicationContext, serviceInterface, invokerType, metricsRegistry, new String[0]);
+    }
+
+    public SPIDispatchTable(ApplicationContext applicationContext, Class<?> serviceInterface,
+            SPIInvokerType invokerType, SPIMetricsRegistry metricsRegistry, String[] fallbackPrefixes) {
+        this.applicationContext = applicationContext;
+        this.serviceInterface = serviceInterface;
+        this.invokerType = invokerType;
+        this.metricsRegistry = metricsRegistry;
+        this.fallbackPrefixes = fallbackPrefixes != null ? fallbackPrefixes.clone() : new String[0];
+    }
+
+    /**
+     * 解析接口方法在指定prefix下的分发目标
+     *
+     * prefix没有实现且配置了fallback时，依次尝试fallback的prefix，
+     * 找到的目标同时缓存在原prefix下，之后同一prefix的调用只需要一次查表，不再抛出、捕获异常。
+     *
+     * @param method 接口方法
+     * @param prefix 路由prefix
+     * @return
+     */
+    public SPIDispatchTarget resolve(Method method, String prefix) {
+        return resolve(method, prefix, fallbackPrefixes.length > 0);
+    }
+
+    /**
+     * 解析接口方法在驻留prefix下的分发目标
+     *
+     * 命中时只需要一次数组访问；未命中时按字符串prefix解析，结果可以缓存时写入数组。
+     *
+     * @param method 接口方法
+     * @param prefix 驻留的路由prefix
+     * @return
+     */
+    public SPIDispatchTarget resolve(Method method, SPIPrefix prefix) {
+        IndexedTargets indexed = indexedTable.get(method);
+        if (indexed == null) {
+            indexed = indexedTable.computeIfAbsent(method, m -> new IndexedTargets());
+        }
+        SPIDispatchTarget[] targets = indexed.targets;
+        int id = prefix.getId();
+        if (id < targets.length && targets[id] != null) {
+            return targets[id];
+        }
+
+        SPIDispatchTarget target = resolve(method, prefix.getValue());
+        // 只缓存单例bean，和字符串分发表保持一致
+        if (isCached(method, prefix.getValue())) {
+            indexed.put(id, target);
+        }
+        return target;
+    }
+
+    private SPIDispatchTarget resolve(Method method, String prefix, boolean fallback) {
+        ConcurrentMap<String, SPIDispatchTarget> targets = table.get(method);
+        if (targets == null) {
+            targets = table.computeIfAbsent(method, m -> new ConcurrentHashMap<>());
+        }
+        SPIDispatchTarget target = targets.get(prefix);
+        if (target != null) {
+            return target;
+        }
+
+        String beanName = prefix + method.getDeclaringClass().getSimpleName();
+        try {
+            if (fallback && !applicationContext.containsBean(beanName)) {
+                target = resolveFallback(method, prefix, beanName);
+            } else {
+                target = createTarget(method, prefix, beanName);
+            }
+        } catch (RuntimeException e) {
+            if (metricsRegistry != null) {
+                // 未命中的prefix取值没有上限，记录在同一个指标下
+                metricsRegistry.getMetrics(serviceInterface, method, SPIMetricsRegistry.ROUTE_MISS_PREFIX)
+                        .recordRouteMiss();
+            }
+            throw e;
+        }
+        // 只缓存单例bean
+        if (applicationContext.isSingleton(target.getBeanName())) {
+            SPIDispatchTarget exist = targets.putIfAbsent(prefix, target);
+            if (exist != null) {
+                target = exist;
+            }
+            log.debug("SPI dispatch cached: {}#{} -> {}", method.getDeclaringClass().getSimpleName(),
+                    method.getName(), target.getBeanName());
+        }
+        return target;
+    }
+
+    /**
+     * 依次尝试fallback的prefix
+     *
+     * @param method
+     * @param prefix   路由的prefix
+     * @param beanName 路由的prefix对应的beanName
+     * @return
+     * @throws NoSuchBeanDefinitionException 所有fallback都没有实现时
+     */
+    private SPIDispatchTarget resolveFallback(Method method, String prefix, String beanName) {
+        for (String fallbackPrefix : fallbackPrefixes) {
+            if (fallbackPrefix.equals(prefix)
+                    || !applicationContext.containsBean(fallbackPrefix + method.getDeclaringClass().getSimpleName())) {
+                continue;
+            }
+            log.debug("SPI dispatch fallback: {} -> {}", beanName, fallbackPrefix);
+            return resolve(method, fallbackPrefix, false);
+        }
+        throw new NoSuchBeanDefinitionException(beanName,
+                "no SPI implementation for prefix '" + prefix + "' or fallback " + Arrays.toString(fallbackPrefixes));
+    }
+
+    /**
+     * 创建分发目标
+     *
+     * @param method
+     * @param prefix
+     * @param beanName
+     * @return
+     */
+    protected SPIDispatchTarget createTarget(Method method, String prefix, String beanName) {
+        Object bean = applicationContext.getBean(beanName);
+        Method targetMethod;
+        try {
+            targetMethod = bean.getClass().getMethod(method.getName(), method.getParameterTypes());
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("SPI target bean " + beanName + " has no method " + method, e);
+        }
+        SPIAsyncDispatcher async = asyncDispatchers
+                .computeIfAbsent(method, m -> Optional.ofNullable(SPIAsyncDispatcher.forMethod(m, applicationContext)))
+                .orElse(null);
+        SPIDeadlineDispatcher deadline = deadlineDispatchers
+                .computeIfAbsent(method,
+                        m -> Optional.ofNullable(SPIDeadlineDispatcher.forMethod(m, this, applicationContext)))
+                .orElse(null);
+        SPIBulkhead bulkhead = bulkheads != null ? bulkheads.apply(prefix) : null;
+        return new SPIDispatchTarget(prefix, beanName, bean, createInvoker(method, bean.getClass(), targetMethod),
+                metricsRegistry == null ? null : metricsRegistry.getMetrics(serviceInterface, method, prefix), async,
+                bulkhead, deadline);
+    }
+
+    /**
+     * 设置获取prefix隔离舱的方法
+     *
+     * @param bulkheads prefix -> 隔离舱，不限制并发时返回null
+     */
+    public void setBulkheads(Function<String, SPIBulkhead> bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    public SPIDispatchRecorder getRecorder() {
+        return recorder;
+    }
+
+    /**
+     * 设置分发记录器
+     *
+     * @param recorder 为null时不记录
+     */
+    public void setRecorder(SPIDispatchRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * 创建目标方法调用器，字节码调用器无法生成时退化为反射调用
+     *
+     * @param method       接口方法
+     * @param targetClass  目标bean的类型
+     * @param targetMethod 目标bean上的方法
+     * @return
+     */
+    protected SPIInvoker createInvoker(Method method, Class<?> targetClass, Method targetMethod) {
+        if (invokerType == SPIInvokerType.BYTECODE) {
+            // JDK代理类的方法通过接口调用
+            SPIInvoker invoker = Proxy.isProxyClass(targetClass)
+                    ? BytecodeSPIInvokerGenerator.generate(method.getDeclaringClass(), method)
+                    : BytecodeSPIInvokerGenerator.generate(targetClass, targetMethod);
+            if (invoker != null) {
+                return invoker;
+            }
+        }
+        return new ReflectionSPIInvoker(targetMethod);
+    }
+
+    /**
+     * 预热分发表，为接口声明的每个方法解析所有单例实现
+     *
+     * @param implementations 实现表，prefix -> beanName
+     * @return 解析失败的问题描述
+     */
+    public List<String> warm(Map<String, String> implementations) {
+        List<String> problems = new ArrayList<>();
+        for (Method method : serviceInterface.getMethods()) {
+            // 继承的方法按声明接口的名称路由，不在该接口的实现表中
+            if (method.getDeclaringClass() != serviceInterface || Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            for (Map.Entry<String, String> impl : implementations.entrySet()) {
+                if (!applicationContext.isSingleton(impl.getValue())) {
+                    continue;
+                }
+                try {
+                    // 启动时驻留所有实现的prefix
+                    resolve(method, SPIPrefix.of(impl.getKey()));
+                } catch (RuntimeException e) {
+                    problems.add("SPI dispatch " + serviceInterface.getSimpleName() + "#" + method.getName()
+                            + " -> " + impl.getValue() + " failed: " + e.getMessage());
+                }
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * 分发目标是否已缓存
+     *
+     * @param method
+     * @param prefix
+     * @return
+     */
+    public boolean isCached(Method method, String prefix) {
+        Map<String, SPIDispatchTarget> targets = table.get(method);
+        return targets != null && targets.containsKey(prefix);
+    }
+
+    /**
+     * 是否采集分发指标
+     *
+     * @return
+     */
+    public boolean isMetricsEnabled() {
+        return metricsRegistry != null;
+    }
+
+    /**
+     * 清空分发表缓存
+     */
+    public void invalidate() {
+        table.clear();
+        indexedTable.clear();
+    }
+
+    /**
+     * 一个方法按prefix id索引的分发目标，写时复制，读取无锁
+     */
+    private static final class IndexedTargets {
+        volatile SPIDispatchTarget[] targets = new SPIDispatchTarget[0];
+
+        synchronized void put(int id, SPIDispatchTarget target) {
+            SPIDispatchTarget[] current = targets;
+            // 按已驻留的prefix数量扩容，减少复制次数
+            SPIDispatchTarget[] updated = Arrays.copyOf(current,
+                    Math.max(current.length, Math.max(id + 1, SPIPrefix.count())));
+            updated[id] = target;
+            targets = updated;
+        }
+    }
+}
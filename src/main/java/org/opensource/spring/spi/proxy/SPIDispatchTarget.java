@@ -0,0 +1,112 @@
+package org.opensource.spring.spi.proxy;
+
+import org.opensource.spring.spi.metrics.SPIDispatchMetrics;
+
+/**
+ * SPI分发目标
+ *
+ * 一次路由解析的结果：目标bean，以及调用目标方法的调用器。
+ * 由{@link SPIDispatchTable}按(接口方法, prefix)缓存，命中后可以直接调用。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public final class SPIDispatchTarget {
+    /**
+     * 路由prefix
+     */
+    private final String prefix;
+    /**
+     * 目标bean在spring中的beanName
+     */
+    private final String beanName;
+    /**
+     * 目标bean
+     */
+    private final Object bean;
+    /**
+     * 目标方法调用器
+     */
+    private final SPIInvoker invoker;
+    /**
+     * 分发指标，未开启指标采集时为null
+     */
+    private final SPIDispatchMetrics metrics;
+    /**
+     * 异步分发，同步方法为null
+     */
+    private final SPIAsyncDispatcher async;
+    /**
+     * 隔离舱，不限制并发时为null
+     */
+    private final SPIBulkhead bulkhead;
+    /**
+     * 时限分发，未限制时为null
+     */
+    private final SPIDeadlineDispatcher deadline;
+
+    public SPIDispatchTarget(String prefix, String beanName, Object bean, SPIInvoker invoker,
+            SPIDispatchMetrics metrics) {
+        this(prefix, beanName, bean, invoker, metrics, null, null, null);
+    }
+
+    SPIDispatchTarget(String prefix, String beanName, Object bean, SPIInvoker invoker, SPIDispatchMetrics metrics,
+            SPIAsyncDispatcher async, SPIBulkhead bulkhead, SPIDeadlineDispatcher deadline) {
+        this.prefix = prefix;
+        this.beanName = beanName;
+        this.bean = bean;
+        this.invoker = invoker;
+        this.metrics = metrics;
+        this.async = async;
+        this.bulkhead = bulkhead;
+        this.deadline = deadline;
+    }
+
+    /**
+     * 调用目标方法
+     *
+     * @param args
+     * @return
+     * @throws Throwable
+     */
+    public Object invoke(Object[] args) throws Throwable {
+        return invoker.invoke(bean, args);
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public String getBeanName() {
+        return beanName;
+    }
+
+    public Object getBean() {
+        return bean;
+    }
+
+    public SPIInvoker getInvoker() {
+        return invoker;
+    }
+
+    public SPIDispatchMetrics getMetrics() {
+        return metrics;
+    }
+
+    SPIAsyncDispatcher getAsync() {
+        return async;
+    }
+
+    SPIDeadlineDispatcher getDeadline() {
+        return deadline;
+    }
+
+    public SPIBulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    @Override
+    public String toString() {
+        return "SPIDispatchTarget[" + beanName + "]";
+    }
+}
@@ -0,0 +1,26 @@
+package org.opensource.spring.spi.proxy;
+
+/**
+ * SPI目标方法调用器
+ *
+ * 封装对目标实现bean某个方法的调用，在分发表中按(接口方法, prefix)缓存，
+ * 避免每次调用都重新查找Method。
+ *
+ * 实现需要直接抛出目标方法的原始异常，而不是包装后的异常。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@FunctionalInterface
+public interface SPIInvoker {
+
+    /**
+     * 调用目标bean的方法
+     *
+     * @param target 目标实现bean
+     * @param args   方法参数
+     * @return 方法返回值
+     * @throws Throwable 目标方法抛出的原始异常
+     */
+    Object invoke(Object target, Object[] args) throws Throwable;
+}
@@ -0,0 +1,70 @@
+package org.opensource.spring.spi.proxy;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * 静态代理的方法调用
+ *
+ * 编译期生成的静态代理没有AOP拦截链，用该类把一次接口调用适配为{@link MethodInvocation}，
+ * 供{@link org.opensource.spring.spi.router.SPIRouter}计算路由。
+ *
+ * 路由器只应读取调用信息，不支持{@link #proceed()}。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public class SPIMethodInvocation implements MethodInvocation {
+    private static final Object[] EMPTY_ARGS = new Object[0];
+
+    /**
+     * 接口方法
+     */
+    private final Method method;
+    /**
+     * 代理对象
+     */
+    private final Object proxy;
+    /**
+     * 调用参数
+     */
+    private final Object[] arguments;
+
+    public SPIMethodInvocation(Method method, Object proxy, Object[] arguments) {
+        this.method = method;
+        this.proxy = proxy;
+        this.arguments = arguments == null ? EMPTY_ARGS : arguments;
+    }
+
+    @Override
+    public Method getMethod() {
+        return method;
+    }
+
+    @Override
+    public Object[] getArguments() {
+        return arguments;
+    }
+
+    @Override
+    public Object proceed() throws Throwable {
+        throw new UnsupportedOperationException("SPI method invocation can not proceed: " + method);
+    }
+
+    @Override
+    public Object getThis() {
+        return proxy;
+    }
+
+    @Override
+    public AccessibleObject getStaticPart() {
+        return method;
+    }
+
+    @Override
+    public String toString() {
+        return "SPIMethodInvocation[" + method + "]";
+    }
+}
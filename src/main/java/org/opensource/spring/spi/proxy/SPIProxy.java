@@ -0,0 +1,25 @@
+package org.opensource.spring.spi.proxy;
+
+/**
+ * 编译期生成的SPI静态代理
+ *
+ * 由{@link org.opensource.spring.spi.processor.SPIProxyProcessor}为{@link org.opensource.spring.spi.annotation.SPI}
+ * 接口生成的代理类都实现该接口，类名为"接口名$SPIProxy"，并提供以{@link SPIProxyFactory}为参数的构造函数。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public interface SPIProxy {
+
+    /**
+     * 生成代理类的类名后缀
+     */
+    String CLASS_SUFFIX = "$SPIProxy";
+
+    /**
+     * 获取代理所属的工厂
+     *
+     * @return
+     */
+    SPIProxyFactory getSpiProxyFactory();
+}
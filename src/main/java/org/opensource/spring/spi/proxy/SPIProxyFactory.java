@@ -1,24 +1,39 @@
 package org.opensource.spring.spi.proxy;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import org.opensource.spring.spi.annotation.SPIInvokerType;
+import org.opensource.spring.spi.metrics.SPIDispatchMetrics;
+import org.opensource.spring.spi.metrics.SPIDispatchRecorder;
+import org.opensource.spring.spi.metrics.SPIFlightRecorder;
+import org.opensource.spring.spi.metrics.SPIMetricsRegistry;
+import org.opensource.spring.spi.router.IndexedSPIRouter;
+import org.opensource.spring.spi.router.SPIPrefix;
 import org.opensource.spring.spi.router.SPIRouter;
 
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
 import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.beans.factory.FactoryBean;
-import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
-import org.springframework.context.annotation.Scope;
-import org.springframework.stereotype.Component;
+import org.springframework.core.env.Environment;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 
 /**
  * SPI策略代理工厂
@@ -27,17 +42,29 @@ import org.springframework.util.Assert;
  * 拦截调用，根据配置的路由器计算出路由。
  * 根据路由在spring容器中找到对应的bean，分发请求到目标bean。
  * 
- * 该类在{@link SPIScanRegister}中引用，用来为{@link SPI}注解的接口生成动态代理。
+ * 该类在{@link SPIScanRegister}中为每个{@link SPI}注解的接口注册为FactoryBean，用来生成动态代理。
+ * 路由器按beanName在第一次创建代理时才从容器获取，获取到的是经过完整后处理的bean。
+ * 如果类路径下存在编译期生成的静态代理({@link SPIProxy})，优先使用静态代理。
+ * 类路径下存在reactor时，返回Publisher、Mono、Flux的方法在订阅时才调用目标方法，使用响应式路由时在订阅时才路由。
  * 
  * @author wutianbiao
  * @date 2021-11-19
  */
-@Component
-@Scope(BeanDefinition.SCOPE_PROTOTYPE)
-public class SPIProxyFactory
-        implements ApplicationContextAware, BeanClassLoaderAware, MethodInterceptor, FactoryBean<Object> {
+public class SPIProxyFactory implements ApplicationContextAware, BeanClassLoaderAware, InitializingBean,
+        MethodInterceptor, FactoryBean<Object> {
     private static final Logger log = LoggerFactory.getLogger(SPIProxyFactory.class);
 
+    /**
+     * 类路径下是否存在reactor，不存在时不加载响应式分发
+     */
+    private static final boolean REACTOR_PRESENT = ClassUtils.isPresent("reactor.core.publisher.Mono",
+            SPIProxyFactory.class.getClassLoader());
+
+    /**
+     * 隔离舱配置项前缀
+     */
+    public static final String BULKHEAD_PROPERTY_PREFIX = "spring.spi.bulkhead.";
+
     /**
      * 应用上下文
      */
@@ -54,13 +81,50 @@ public class SPIProxyFactory
      * 代理bean
      */
     private Object serviceProxy;
+    /**
+     * 分发表，缓存(接口方法, prefix)的路由解析结果。第一次调用时创建，清空缓存时重建
+     */
+    private volatile SPIDispatchTable dispatchTable;
 
     /**
      * 策略路由
      */
     private SPIRouter spiRouter;
+    /**
+     * 策略路由在spring中的beanName，未直接设置路由时，创建代理时获取
+     */
+    private String spiRouterBeanName;
+    /**
+     * 目标方法调用方式
+     */
+    private SPIInvokerType invokerType = SPIInvokerType.BYTECODE;
+    /**
+     * 路由的prefix没有实现时，依次尝试的prefix
+     */
+    private String[] fallbackPrefixes = new String[0];
+    /**
+     * 每个prefix的最大并发调用数，0表示不限制
+     */
+    private int maxConcurrency;
+    /**
+     * 超过最大并发数时的最大等待时间，毫秒
+     */
+    private long maxWaitMillis;
+    /**
+     * prefix的隔离舱，prefix -> 隔离舱，不限制并发时为空。同一prefix的所有方法共用，
+     * 不随分发表丢弃，容器刷新后正在执行的调用仍占用原来的并发额度
+     */
+    private final ConcurrentMap<String, Optional<SPIBulkhead>> bulkheads = new ConcurrentHashMap<>();
 
+    /**
+     * 获取策略路由，未设置时按beanName从容器获取
+     *
+     * @return
+     */
     public SPIRouter getSpiRouter() {
+        if (spiRouter == null && spiRouterBeanName != null) {
+            spiRouter = applicationContext.getBean(spiRouterBeanName, SPIRouter.class);
+        }
         return spiRouter;
     }
 
@@ -68,6 +132,46 @@ public class SPIProxyFactory
         this.spiRouter = spiRouter;
     }
 
+    public String getSpiRouterBeanName() {
+        return spiRouterBeanName;
+    }
+
+    public void setSpiRouterBeanName(String spiRouterBeanName) {
+        this.spiRouterBeanName = spiRouterBeanName;
+    }
+
+    public SPIInvokerType getInvokerType() {
+        return invokerType;
+    }
+
+    public void setInvokerType(SPIInvokerType invokerType) {
+        this.invokerType = invokerType;
+    }
+
+    public String[] getFallbackPrefixes() {
+        return fallbackPrefixes;
+    }
+
+    public void setFallbackPrefixes(String... fallbackPrefixes) {
+        this.fallbackPrefixes = fallbackPrefixes != null ? fallbackPrefixes : new String[0];
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public void setMaxWaitMillis(long maxWaitMillis) {
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
         this.applicationContext = applicationContext;
@@ -78,37 +182,371 @@ public class SPIProxyFactory
         if (serviceProxy == null) {
             Class<?> ifc = getServiceInterface();
             Assert.notNull(ifc, "Property 'serviceInterface' is required");
-            Assert.notNull(getSpiRouter(), "Property 'spiRouter' is required");
-            serviceProxy = new ProxyFactory(ifc, this).getProxy(classLoader);
+            Assert.notNull(getSpiRouter(), "Property 'spiRouter' or 'spiRouterBeanName' is required");
+            Class<?> generatedProxy = getGeneratedProxyClass(ifc);
+            if (generatedProxy != null) {
+                log.info("SPI use generated proxy: {}", generatedProxy.getName());
+                serviceProxy = BeanUtils.instantiateClass(generatedProxy.getConstructor(SPIProxyFactory.class), this);
+            } else {
+                serviceProxy = new ProxyFactory(ifc, this).getProxy(classLoader);
+            }
         }
         return serviceProxy;
     }
 
+    /**
+     * 注册代理工厂，容器刷新时校验实现、预热分发表
+     */
+    @Override
+    public void afterPropertiesSet() {
+        Assert.notNull(getServiceInterface(), "Property 'serviceInterface' is required");
+        applicationContext.getBeanProvider(SPIProxyRegistry.class).ifAvailable(r -> r.register(this));
+    }
+
     @Override
     public Class<?> getObjectType() {
         return getServiceInterface();
     }
 
+    /**
+     * 获取编译期生成的静态代理类
+     *
+     * @param ifc
+     * @return 不存在时返回null
+     */
+    protected Class<?> getGeneratedProxyClass(Class<?> ifc) {
+        String className = ifc.getName() + SPIProxy.CLASS_SUFFIX;
+        ClassLoader loader = ifc.getClassLoader();
+        if (!ClassUtils.isPresent(className, loader)) {
+            return null;
+        }
+        Class<?> generatedProxy = ClassUtils.resolveClassName(className, loader);
+        if (!SPIProxy.class.isAssignableFrom(generatedProxy) || !ifc.isAssignableFrom(generatedProxy)) {
+            log.warn("SPI generated proxy ignored, not a SPIProxy of {}: {}", ifc.getName(), className);
+            return null;
+        }
+        return generatedProxy;
+    }
+
     @Override
     public Object invoke(MethodInvocation invocation) throws Throwable {
+        return doDispatch(invocation, null);
+    }
+
+    /**
+     * 静态代理的分发入口
+     *
+     * 路由解析出目标bean后，通过call直接调用目标bean的方法。
+     *
+     * @param method 接口方法
+     * @param proxy  静态代理对象
+     * @param args   调用参数
+     * @param call   目标bean调用
+     * @return
+     * @throws Throwable
+     */
+    public Object dispatch(Method method, Object proxy, Object[] args, SPITargetCall call) throws Throwable {
+        return doDispatch(new SPIMethodInvocation(method, proxy, args), call);
+    }
+
+    /**
+     * 路由并分发调用
+     *
+     * 响应式方法返回延迟的流，订阅时才调用目标方法；使用响应式路由时，路由同样延迟到订阅时。
+     *
+     * @param invocation 方法调用
+     * @param call       目标bean直接调用，为null时使用分发表中的调用器
+     * @return
+     * @throws Throwable
+     */
+    protected Object doDispatch(MethodInvocation invocation, SPITargetCall call) throws Throwable {
         log.debug("spi proxy invoke:{}", invocation.getMethod().getName());
+        SPIDispatchTable table = getDispatchTable();
+        Class<?> returnType = invocation.getMethod().getReturnType();
+        if (REACTOR_PRESENT && SPIReactiveDispatcher.isReactive(returnType)) {
+            return SPIReactiveDispatcher.defer(returnType, spiRouter, invocation,
+                    router -> doDispatch(table, invocation, call, router));
+        }
+        return doDispatch(table, invocation, call, spiRouter);
+    }
 
-        String service = invocation.getMethod().getDeclaringClass().getSimpleName();
-
-        // 策略路由
-        String prefix = this.spiRouter.route(invocation);
-        prefix = prefix == null ? "" : prefix;
-        log.debug("calc prefix result:{}", prefix);
-        // 获取bean
-        Object bean = this.applicationContext.getBean(prefix + service);
-        // 获取方法调用返回
-        Method method = bean.getClass().getMethod(invocation.getMethod().getName(),
-                invocation.getMethod().getParameterTypes());
+    /**
+     * 路由并分发调用，存在分发记录器时记录本次分发
+     *
+     * @param table      分发表
+     * @param invocation 方法调用
+     * @param call       目标bean直接调用，为null时使用分发表中的调用器
+     * @param router     策略路由
+     * @return
+     * @throws Throwable
+     */
+    private Object doDispatch(SPIDispatchTable table, MethodInvocation invocation, SPITargetCall call,
+            SPIRouter router) throws Throwable {
+        SPIDispatchRecorder recorder = table.getRecorder();
+        Object recording = recorder == null ? null
+                : recorder.begin(serviceInterface, invocation.getMethod(), spiRouter.getClass());
+        if (recording == null) {
+            return doDispatch(table, invocation, call, router, null, null);
+        }
+        // 记录本次分发
+        try {
+            Object result = doDispatch(table, invocation, call, router, recorder, recording);
+            recorder.end(recording, null);
+            return result;
+        } catch (Throwable e) {
+            recorder.end(recording, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 路由并分发调用
+     *
+     * @param table      分发表
+     * @param invocation 方法调用
+     * @param call       目标bean直接调用，为null时使用分发表中的调用器
+     * @param router     策略路由
+     * @param recorder   分发记录器，不记录时为null
+     * @param recording  记录对象，不记录时为null
+     * @return
+     * @throws Throwable
+     */
+    private Object doDispatch(SPIDispatchTable table, MethodInvocation invocation, SPITargetCall call,
+            SPIRouter router, SPIDispatchRecorder recorder, Object recording) throws Throwable {
+        long start = table.isMetricsEnabled() ? System.nanoTime() : 0L;
+
+        // 策略路由，从分发表获取目标bean，并调用
+        SPIDispatchTarget target;
+        if (router instanceof IndexedSPIRouter) {
+            // 驻留的prefix按id直接取分发目标
+            SPIPrefix prefix = ((IndexedSPIRouter) router).routePrefix(invocation);
+            prefix = prefix == null ? SPIPrefix.DEFAULT : prefix;
+            log.debug("calc prefix result:{}", prefix);
+            target = table.resolve(invocation.getMethod(), prefix);
+            if (recording != null) {
+                recorder.routed(recording, prefix.getValue(), target.getBeanName());
+            }
+        } else {
+            String prefix = router.route(invocation);
+            prefix = prefix == null ? "" : prefix;
+            log.debug("calc prefix result:{}", prefix);
+            target = table.resolve(invocation.getMethod(), prefix);
+            if (recording != null) {
+                recorder.routed(recording, prefix, target.getBeanName());
+            }
+        }
+        SPIDispatchMetrics metrics = target.getMetrics();
+        SPIAsyncDispatcher async = target.getAsync();
+        SPIBulkhead bulkhead = target.getBulkhead();
+        if (metrics == null && async == null && bulkhead == null) {
+            return invokeTarget(target, invocation, call);
+        }
+
+        // 采集指标
+        long routed = System.nanoTime();
+        if (metrics != null) {
+            metrics.recordRoute(routed - start);
+        }
+        // 隔离舱限流
+        if (bulkhead != null) {
+            try {
+                bulkhead.acquire();
+            } catch (SPIRejectedException e) {
+                if (metrics != null) {
+                    metrics.recordRejected();
+                }
+                throw e;
+            }
+        }
+        // 异步方法，在future完成时采集指标、释放并发额度
+        if (async != null) {
+            return async.dispatch(() -> invokeTarget(target, invocation, call), metrics, routed, bulkhead);
+        }
+        // 时限方法由线程池中的调用在结束时释放并发额度
+        SPIDeadlineDispatcher deadline = target.getDeadline();
+        boolean completing = false;
+        try {
+            Object result = deadline != null ? deadline.dispatch(target, invocation, call, bulkhead)
+                    : invokeTarget(target, invocation, call);
+            if (deadline == null && result instanceof CompletionStage) {
+                // 未注解@SPIAsync的异步方法，原样返回实现的future，完成时采集指标、释放并发额度
+                completing = true;
+                SPIAsyncDispatcher.whenComplete((CompletionStage<?>) result, metrics, routed, bulkhead);
+                return result;
+            }
+            if (metrics != null) {
+                metrics.recordSuccess(System.nanoTime() - routed);
+            }
+            return result;
+        } catch (Throwable e) {
+            if (metrics != null) {
+                metrics.recordError(System.nanoTime() - routed, e);
+            }
+            throw e;
+        } finally {
+            if (bulkhead != null && deadline == null && !completing) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    /**
+     * 调用目标bean
+     *
+     * @param target
+     * @param invocation
+     * @param call
+     * @return
+     * @throws Throwable
+     */
+    private Object invokeTarget(SPIDispatchTarget target, MethodInvocation invocation, SPITargetCall call)
+            throws Throwable {
+        SPIDeadlineDispatcher deadline = target.getDeadline();
+        if (deadline != null) {
+            return deadline.dispatch(target, invocation, call, null);
+        }
+        if (call != null) {
+            return call.call(target.getBean());
+        }
+        return target.invoke(invocation.getArguments());
+    }
+
+    /**
+     * 获取接口的所有实现
+     *
+     * @return 不可变的(prefix -> beanName)，容器刷新前为空
+     * @see SPIProxyRegistry#getImplementations(Class)
+     */
+    public Map<String, String> getImplementations() {
+        SPIProxyRegistry registry = applicationContext.getBeanProvider(SPIProxyRegistry.class).getIfAvailable();
+        return registry != null ? registry.getImplementations(serviceInterface) : Collections.emptyMap();
+    }
+
+    /**
+     * 获取实现bean
+     *
+     * @param beanName
+     * @return
+     */
+    public Object getImplementation(String beanName) {
+        return applicationContext.getBean(beanName, serviceInterface);
+    }
+
+    /**
+     * 获取SPI代理对象所属的工厂
+     *
+     * @param proxy 注入的SPI代理对象，动态代理或者编译期生成的静态代理
+     * @return
+     * @throws IllegalArgumentException 不是SPI代理对象时
+     */
+    public static SPIProxyFactory forProxy(Object proxy) {
+        if (proxy instanceof SPIProxy) {
+            return ((SPIProxy) proxy).getSpiProxyFactory();
+        }
+        if (proxy instanceof Advised) {
+            for (Advisor advisor : ((Advised) proxy).getAdvisors()) {
+                if (advisor.getAdvice() instanceof SPIProxyFactory) {
+                    return (SPIProxyFactory) advisor.getAdvice();
+                }
+            }
+        }
+        throw new IllegalArgumentException("Not a SPI proxy: " + proxy);
+    }
+
+    /**
+     * 查找接口方法，供静态代理初始化使用
+     *
+     * @param ifc            接口
+     * @param name           方法名
+     * @param parameterTypes 参数类型
+     * @return
+     */
+    public static Method findMethod(Class<?> ifc, String name, Class<?>... parameterTypes) {
         try {
-            return method.invoke(bean, invocation.getArguments());
-        } catch (InvocationTargetException e) {
-            throw e.getCause();
+            return ifc.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("SPI interface method not found: " + ifc.getName() + "#" + name, e);
+        }
+    }
+
+    /**
+     * 获取分发表，不存在时创建
+     *
+     * 分发表依赖的指标注册表等bean在第一次调用时才从容器获取，避免在bean定义注册阶段提前初始化。
+     *
+     * @return
+     */
+    public SPIDispatchTable getDispatchTable() {
+        SPIDispatchTable table = dispatchTable;
+        if (table == null) {
+            synchronized (this) {
+                table = dispatchTable;
+                if (table == null) {
+                    SPIMetricsRegistry metricsRegistry = applicationContext.getBeanProvider(SPIMetricsRegistry.class)
+                            .getIfAvailable();
+                    table = new SPIDispatchTable(applicationContext, serviceInterface, invokerType, metricsRegistry,
+                            fallbackPrefixes);
+                    table.setBulkheads(this::getBulkhead);
+                    table.setRecorder(createRecorder());
+                    dispatchTable = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * 获取prefix的隔离舱，不存在时创建
+     *
+     * @param prefix 路由prefix
+     * @return 不限制并发时返回null
+     */
+    public SPIBulkhead getBulkhead(String prefix) {
+        return bulkheads.computeIfAbsent(prefix, p -> Optional.ofNullable(createBulkhead(p))).orElse(null);
+    }
+
+    /**
+     * 创建prefix的隔离舱，配置项优先于{@link org.opensource.spring.spi.annotation.SPI}注解
+     *
+     * @param prefix
+     * @return 不限制并发时返回null
+     */
+    protected SPIBulkhead createBulkhead(String prefix) {
+        Environment environment = applicationContext.getEnvironment();
+        String ifcKey = BULKHEAD_PROPERTY_PREFIX + serviceInterface.getSimpleName() + ".";
+        String prefixKey = ifcKey + prefix + ".";
+        int concurrency = environment.getProperty(prefixKey + "max-concurrency", Integer.class,
+                environment.getProperty(ifcKey + "max-concurrency", Integer.class, maxConcurrency));
+        if (concurrency <= 0) {
+            return null;
+        }
+        long maxWait = environment.getProperty(prefixKey + "max-wait-millis", Long.class,
+                environment.getProperty(ifcKey + "max-wait-millis", Long.class, maxWaitMillis));
+        log.debug("SPI bulkhead: {}[{}] maxConcurrency={}, maxWaitMillis={}", serviceInterface.getSimpleName(),
+                prefix, concurrency, maxWait);
+        return new SPIBulkhead(serviceInterface, prefix, concurrency, maxWait);
+    }
+
+    /**
+     * 获取分发记录器，容器中的bean优先，其次为JFR集成
+     *
+     * @return 不记录时返回null
+     */
+    private SPIDispatchRecorder createRecorder() {
+        SPIDispatchRecorder recorder = applicationContext.getBeanProvider(SPIDispatchRecorder.class)
+                .getIfAvailable();
+        if (recorder == null && applicationContext.getEnvironment()
+                .getProperty(SPIFlightRecorder.ENABLED_PROPERTY, Boolean.class, true)) {
+            recorder = SPIFlightRecorder.getRecorder();
         }
+        return recorder;
+    }
+
+    /**
+     * 清空分发表缓存，下次调用重新解析目标bean，隔离舱保留
+     */
+    public void invalidate() {
+        dispatchTable = null;
     }
 
     /**
@@ -0,0 +1,266 @@
+package org.opensource.spring.spi.proxy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.opensource.spring.spi.annotation.SPI;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ApplicationContextEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+/**
+ * SPI代理注册表
+ *
+ * 记录容器中所有已初始化的{@link SPIProxyFactory}。
+ * 容器刷新、关闭时清空各代理的分发表缓存，避免持有过期的bean。
+ *
+ * 容器刷新完成后，为每个SPI接口查找所有实现bean，生成不可变的(prefix -> beanName)实现表，
+ * 并预热各代理的分发表，第一次调用不再查找bean。
+ * 查找时发现的问题(实现bean命名不符合"prefix + 接口名"、同名bean不是该接口或其他SPI接口的实现、接口简单类名重复)默认打印警告，
+ * 配置"spring.spi.fail-fast=true"时启动失败。
+ *
+ * 动态注册、替换了扩展实现bean时，业务可以手动调用{@link #invalidate()}和{@link #refresh()}。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@Component
+public class SPIProxyRegistry implements ApplicationListener<ApplicationContextEvent>, ApplicationContextAware {
+    private static final Logger log = LoggerFactory.getLogger(SPIProxyRegistry.class);
+
+    /**
+     * 启动校验失败时是否启动失败
+     */
+    public static final String FAIL_FAST_PROPERTY = "spring.spi.fail-fast";
+
+    /**
+     * 代理bean的beanName后缀
+     */
+    private static final String PROXY_BEAN_SUFFIX = "#Proxy";
+
+    /**
+     * 应用上下文
+     */
+    private ApplicationContext applicationContext;
+    /**
+     * 已初始化的代理工厂
+     */
+    private final List<SPIProxyFactory> proxyFactories = new CopyOnWriteArrayList<>();
+    /**
+     * 实现表，接口 -> (prefix -> beanName)，刷新时整体替换
+     */
+    private volatile Map<Class<?>, Map<String, String>> implementations = Collections.emptyMap();
+    /**
+     * 容器是否已刷新，之后注册的代理工厂(延迟初始化)单独查找实现并预热
+     */
+    private volatile boolean refreshed;
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * 注册代理工厂
+     *
+     * @param proxyFactory
+     */
+    public void register(SPIProxyFactory proxyFactory) {
+        proxyFactories.add(proxyFactory);
+        if (refreshed) {
+            refresh(proxyFactory);
+        }
+    }
+
+    /**
+     * 获取已注册的代理工厂
+     *
+     * @return
+     */
+    public List<SPIProxyFactory> getProxyFactories() {
+        return Collections.unmodifiableList(proxyFactories);
+    }
+
+    /**
+     * 获取接口的实现表
+     *
+     * @param serviceInterface SPI接口
+     * @return 不可变的(prefix -> beanName)，按prefix排序，接口未注册时为空
+     */
+    public Map<String, String> getImplementations(Class<?> serviceInterface) {
+        Map<String, String> impls = implementations.get(serviceInterface);
+        return impls != null ? impls : Collections.emptyMap();
+    }
+
+    /**
+     * 清空所有代理的分发表缓存
+     */
+    public void invalidate() {
+        for (SPIProxyFactory proxyFactory : proxyFactories) {
+            proxyFactory.invalidate();
+        }
+        log.debug("SPI dispatch cache invalidated, proxies: {}", proxyFactories.size());
+    }
+
+    /**
+     * 重新查找所有接口的实现，校验并预热分发表
+     *
+     * @throws IllegalStateException 开启fail-fast且校验失败时
+     */
+    public void refresh() {
+        List<String> problems = new ArrayList<>();
+        Map<Class<?>, Map<String, String>> discovered = new HashMap<>();
+        Map<String, Class<?>> simpleNames = new HashMap<>();
+        for (SPIProxyFactory proxyFactory : proxyFactories) {
+            Class<?> ifc = proxyFactory.getServiceInterface();
+            // 接口简单类名相同时，实现bean的命名会冲突
+            Class<?> exist = simpleNames.putIfAbsent(ifc.getSimpleName(), ifc);
+            if (exist != null && exist != ifc) {
+                problems.add("SPI interfaces " + exist.getName() + " and " + ifc.getName()
+                        + " share the simple name, implementation bean names are ambiguous");
+            }
+            Map<String, String> impls = discover(ifc, problems);
+            discovered.put(ifc, impls);
+            problems.addAll(proxyFactory.getDispatchTable().warm(impls));
+        }
+        this.implementations = Collections.unmodifiableMap(discovered);
+        this.refreshed = true;
+
+        if (problems.isEmpty()) {
+            log.info("SPI implementations discovered: {}", discovered.size());
+            return;
+        }
+        report(problems);
+    }
+
+    /**
+     * 查找容器刷新后注册的代理工厂的实现，校验并预热分发表
+     *
+     * @param proxyFactory
+     * @throws IllegalStateException 开启fail-fast且校验失败时
+     */
+    private void refresh(SPIProxyFactory proxyFactory) {
+        List<String> problems = new ArrayList<>();
+        Class<?> ifc = proxyFactory.getServiceInterface();
+        Map<String, String> impls = discover(ifc, problems);
+        problems.addAll(proxyFactory.getDispatchTable().warm(impls));
+        synchronized (this) {
+            Map<Class<?>, Map<String, String>> discovered = new HashMap<>(implementations);
+            discovered.put(ifc, impls);
+            this.implementations = Collections.unmodifiableMap(discovered);
+        }
+        if (!problems.isEmpty()) {
+            report(problems);
+        }
+    }
+
+    /**
+     * 报告校验问题，开启fail-fast时抛出异常，否则打印警告
+     *
+     * @param problems
+     */
+    private void report(List<String> problems) {
+        if (applicationContext.getEnvironment().getProperty(FAIL_FAST_PROPERTY, Boolean.class, false)) {
+            throw new IllegalStateException("SPI validation failed:\n" + String.join("\n", problems));
+        }
+        for (String problem : problems) {
+            log.warn(problem);
+        }
+    }
+
+    /**
+     * 查找接口的所有实现bean
+     *
+     * @param ifc
+     * @param problems 发现的问题
+     * @return 不可变的(prefix -> beanName)
+     */
+    private Map<String, String> discover(Class<?> ifc, List<String> problems) {
+        String suffix = ifc.getSimpleName();
+        Map<String, String> impls = new TreeMap<>();
+        for (String beanName : applicationContext.getBeanNamesForType(ifc, true, false)) {
+            if (beanName.endsWith(PROXY_BEAN_SUFFIX)) {
+                continue;
+            }
+            if (beanName.endsWith(suffix)) {
+                impls.put(beanName.substring(0, beanName.length() - suffix.length()), beanName);
+            } else {
+                problems.add("SPI implementation " + beanName + " of " + ifc.getName()
+                        + " is unreachable, bean name should be prefix + " + suffix);
+            }
+        }
+        // 按命名规则会路由到、但不是该接口实现的bean
+        for (String beanName : applicationContext.getBeanDefinitionNames()) {
+            if (beanName.endsWith(suffix) && !impls.containsValue(beanName)) {
+                Class<?> type = applicationContext.getType(beanName, false);
+                if (type == null || ifc.isAssignableFrom(type)) {
+                    continue;
+                }
+                // 其他SPI接口的实现，接口名以该接口名结尾(如LocalReactiveService和ReactiveService)，不算命名错误
+                Class<?> other = findSPIInterface(type);
+                if (other != null) {
+                    log.debug("SPI bean {} matches {} by name but implements {}", beanName, ifc.getName(),
+                            other.getName());
+                    continue;
+                }
+                problems.add("SPI bean " + beanName + " matches " + ifc.getName()
+                        + " by name but does not implement it, type: " + type.getName());
+            }
+        }
+        if (impls.isEmpty()) {
+            log.warn("SPI interface has no implementation: {}", ifc.getName());
+        } else {
+            log.debug("SPI implementations of {}: {}", ifc.getName(), impls);
+        }
+        return Collections.unmodifiableMap(impls);
+    }
+
+    /**
+     * 查找bean类型实现的SPI接口
+     *
+     * @param type bean类型
+     * @return 已注册代理或标注了{@link SPI}的接口，没有时为null
+     */
+    private Class<?> findSPIInterface(Class<?> type) {
+        for (SPIProxyFactory proxyFactory : proxyFactories) {
+            if (proxyFactory.getServiceInterface().isAssignableFrom(type)) {
+                return proxyFactory.getServiceInterface();
+            }
+        }
+        for (Class<?> ifc : ClassUtils.getAllInterfacesForClassAsSet(type)) {
+            if (AnnotationUtils.findAnnotation(ifc, SPI.class) != null) {
+                return ifc;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationContextEvent event) {
+        if (event instanceof ContextRefreshedEvent || event instanceof ContextClosedEvent) {
+            invalidate();
+        }
+        if (event instanceof ContextClosedEvent && event.getApplicationContext() == applicationContext) {
+            refreshed = false;
+        }
+        // 子容器的刷新事件也会传播到父容器，只处理本容器
+        if (event instanceof ContextRefreshedEvent && event.getApplicationContext() == applicationContext) {
+            refresh();
+        }
+    }
+}
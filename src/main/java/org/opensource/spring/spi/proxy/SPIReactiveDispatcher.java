@@ -0,0 +1,112 @@
+package org.opensource.spring.spi.proxy;
+
+import java.util.function.Function;
+
+import org.opensource.spring.spi.router.IndexedSPIRouter;
+import org.opensource.spring.spi.router.ReactiveSPIRouter;
+import org.opensource.spring.spi.router.SPIPrefix;
+import org.opensource.spring.spi.router.SPIRouter;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.reactivestreams.Publisher;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * SPI响应式分发
+ *
+ * 处理返回Publisher、Mono、Flux的接口方法：返回延迟的流，订阅时才调用目标方法。
+ * {@link ReactiveSPIRouter}在订阅时路由，读取订阅者的Context；其他路由器(ThreadLocal、作用域等)在调用时立即路由，
+ * 避免订阅时调用线程的prefix已经出栈。订阅时的路由和调用异常以错误信号返回。
+ *
+ * 依赖reactor-core，{@link SPIProxyFactory}只在类路径下存在reactor时加载该类。
+ * 分发指标、隔离舱、时限等覆盖的是目标方法返回流的过程，不包括流的执行。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+final class SPIReactiveDispatcher {
+
+    private SPIReactiveDispatcher() {
+    }
+
+    /**
+     * 目标bean调用
+     */
+    interface Call {
+        /**
+         * 使用路由器分发
+         *
+         * @param router
+         * @return 目标方法返回的流
+         * @throws Throwable
+         */
+        Object call(SPIRouter router) throws Throwable;
+    }
+
+    /**
+     * 是否响应式方法
+     *
+     * @param returnType 方法返回类型
+     * @return
+     */
+    static boolean isReactive(Class<?> returnType) {
+        return returnType == Mono.class || returnType == Flux.class || returnType == Publisher.class;
+    }
+
+    /**
+     * 延迟到订阅时分发
+     *
+     * @param returnType 方法返回类型
+     * @param router     策略路由
+     * @param invocation 方法调用，非响应式路由器在调用时使用
+     * @param call       目标bean调用
+     * @return
+     */
+    static Object defer(Class<?> returnType, SPIRouter router, MethodInvocation invocation, Call call) {
+        Function<ContextView, Publisher<Object>> subscribe;
+        if (router instanceof ReactiveSPIRouter) {
+            subscribe = context -> dispatch(router, call, context);
+        } else {
+            // 在调用线程路由，订阅时使用路由结果
+            SPIRouter routed = routeNow(router, invocation);
+            subscribe = context -> dispatch(routed, call, context);
+        }
+        if (returnType == Mono.class) {
+            return Mono.deferContextual(context -> Mono.from(subscribe.apply(context)));
+        }
+        return Flux.deferContextual(subscribe);
+    }
+
+    /**
+     * 立即路由，返回固定路由结果的路由器
+     *
+     * @param router
+     * @param invocation
+     * @return
+     */
+    private static SPIRouter routeNow(SPIRouter router, MethodInvocation invocation) {
+        if (router instanceof IndexedSPIRouter) {
+            SPIPrefix prefix = ((IndexedSPIRouter) router).routePrefix(invocation);
+            return (IndexedSPIRouter) i -> prefix;
+        }
+        String prefix = router.route(invocation);
+        return i -> prefix;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Publisher<Object> dispatch(SPIRouter router, Call call, ContextView context) {
+        // 响应式路由器读取订阅者的Context
+        SPIRouter subscribed = router instanceof ReactiveSPIRouter
+                ? invocation -> ((ReactiveSPIRouter) router).route(invocation, context)
+                : router;
+        try {
+            Object result = call.call(subscribed);
+            return result != null ? (Publisher<Object>) result : Mono.empty();
+        } catch (Throwable e) {
+            return Mono.error(e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.opensource.spring.spi.proxy;
+
+/**
+ * SPI调用被隔离舱拒绝
+ *
+ * 路由到的(接口, prefix)并发调用数已达上限，且在最大等待时间内没有获取到额度。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public class SPIRejectedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 扩展服务接口
+     */
+    private final Class<?> serviceInterface;
+    /**
+     * 路由prefix
+     */
+    private final String prefix;
+
+    public SPIRejectedException(Class<?> serviceInterface, String prefix, int maxConcurrency) {
+        super("SPI call rejected, " + serviceInterface.getSimpleName() + "[" + prefix + "] reached max concurrency "
+                + maxConcurrency);
+        this.serviceInterface = serviceInterface;
+        this.prefix = prefix;
+    }
+
+    public Class<?> getServiceInterface() {
+        return serviceInterface;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+}
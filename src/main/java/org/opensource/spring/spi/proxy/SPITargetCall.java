@@ -0,0 +1,23 @@
+package org.opensource.spring.spi.proxy;
+
+/**
+ * 目标bean直接调用
+ *
+ * 编译期生成的静态代理，把对目标bean的调用封装为该接口交给{@link SPIProxyFactory#dispatch}，
+ * 路由解析出目标bean后直接回调，不经过反射。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@FunctionalInterface
+public interface SPITargetCall {
+
+    /**
+     * 调用目标bean
+     *
+     * @param target 路由到的目标实现bean
+     * @return 方法返回值，void方法返回null
+     * @throws Throwable 目标方法抛出的原始异常
+     */
+    Object call(Object target) throws Throwable;
+}
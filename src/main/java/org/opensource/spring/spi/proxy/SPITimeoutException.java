@@ -0,0 +1,33 @@
+package org.opensource.spring.spi.proxy;
+
+/**
+ * SPI调用超时
+ *
+ * {@link org.opensource.spring.spi.annotation.SPIDeadline}注解的方法在时限内没有返回，
+ * 或者等待时调用线程被中断，此时cause为{@link InterruptedException}，调用线程的中断标记保留。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public class SPITimeoutException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 路由prefix
+     */
+    private final String prefix;
+
+    public SPITimeoutException(String message, String prefix) {
+        super(message);
+        this.prefix = prefix;
+    }
+
+    public SPITimeoutException(String message, String prefix, Throwable cause) {
+        super(message, cause);
+        this.prefix = prefix;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+}
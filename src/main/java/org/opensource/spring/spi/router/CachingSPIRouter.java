@@ -0,0 +1,205 @@
+package org.opensource.spring.spi.router;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+/**
+ * 路由结果缓存装饰器
+ *
+ * 适用于路由结果只取决于入参中某个字段的确定性路由器，如按渠道、租户路由，且路由计算本身开销较大(如查询租户配置)。
+ * 通过keyExtractor从方法调用中提取缓存key，相同key在有效期内直接返回缓存的prefix，不再调用被装饰的路由器。
+ *
+ * 1. keyExtractor返回null时不使用缓存，直接调用被装饰的路由器；<br />
+ * 2. 缓存条目数不超过maxSize，达到maxSize时先清理过期条目，再按写入先后淘汰最早的条目；
+ * 其他线程正在淘汰时不等待，本次路由结果不缓存；<br />
+ * 3. 多个接口方法共用一个路由器时，如果不同方法的路由规则不同，key需要能区分方法。
+ *
+ * <pre>
+ * &#64;Bean("channelRoute")
+ * public SPIRouter channelRoute() {
+ *     return new CachingSPIRouter(new TenantRoute(),
+ *             invocation -> ((BaseParam) invocation.getArguments()[0]).getTenantId(), 1024, Duration.ofMinutes(5));
+ * }
+ * </pre>
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public class CachingSPIRouter implements SPIRouter {
+    private static final Logger log = LoggerFactory.getLogger(CachingSPIRouter.class);
+
+    /**
+     * 被装饰的路由器
+     */
+    private final SPIRouter delegate;
+    /**
+     * 缓存key提取
+     */
+    private final Function<MethodInvocation, ?> keyExtractor;
+    /**
+     * 最大缓存条目数
+     */
+    private final int maxSize;
+    /**
+     * 缓存有效期，纳秒
+     */
+    private final long ttlNanos;
+    /**
+     * 路由缓存
+     */
+    private final ConcurrentMap<Object, Entry> cache = new ConcurrentHashMap<>();
+    /**
+     * 已占用的缓存容量，新key写入前先占用，保证缓存条目数不超过maxSize
+     */
+    private final AtomicInteger size = new AtomicInteger();
+    /**
+     * 淘汰标记，同一时间只有一个线程执行淘汰
+     */
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    public CachingSPIRouter(SPIRouter delegate, Function<MethodInvocation, ?> keyExtractor, int maxSize,
+            Duration ttl) {
+        Assert.notNull(delegate, "'delegate' must not be null");
+        Assert.notNull(keyExtractor, "'keyExtractor' must not be null");
+        Assert.isTrue(maxSize > 0, "'maxSize' must be positive");
+        Assert.isTrue(ttl != null && !ttl.isNegative() && !ttl.isZero(), "'ttl' must be positive");
+        this.delegate = delegate;
+        this.keyExtractor = keyExtractor;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    @Override
+    public String route(MethodInvocation invocation) {
+        Object key = keyExtractor.apply(invocation);
+        if (key == null) {
+            return delegate.route(invocation);
+        }
+        long now = System.nanoTime();
+        Entry entry = cache.get(key);
+        if (entry != null && now - entry.expireAt < 0) {
+            hitCount.increment();
+            return entry.prefix;
+        }
+
+        missCount.increment();
+        String prefix = delegate.route(invocation);
+        Entry fresh = new Entry(prefix, now + ttlNanos);
+        if (entry != null && cache.replace(key, entry, fresh)) {
+            return prefix;
+        }
+        // 新key先占用容量，其他线程已写入同一key时归还
+        if (reserve(now) && cache.putIfAbsent(key, fresh) != null) {
+            size.decrementAndGet();
+        }
+        return prefix;
+    }
+
+    /**
+     * 占用一个缓存容量，已满时淘汰后重试
+     *
+     * @param now
+     * @return 其他线程正在淘汰或者淘汰后仍然已满时返回false
+     */
+    private boolean reserve(long now) {
+        return tryReserve() || (evict(now) && tryReserve());
+    }
+
+    private boolean tryReserve() {
+        int current;
+        while ((current = size.get()) < maxSize) {
+            if (size.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 淘汰缓存：清理过期条目，仍然超出时按写入先后淘汰最早的条目，直到容量的3/4
+     *
+     * 有效期相同，过期时间的先后就是写入的先后。
+     *
+     * @param now
+     * @return 其他线程正在淘汰时返回false
+     */
+    private boolean evict(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            List<Map.Entry<Object, Entry>> entries = new ArrayList<>(cache.entrySet());
+            entries.sort((x, y) -> Long.compare(x.getValue().expireAt - now, y.getValue().expireAt - now));
+            int excess = size.get() - (maxSize - maxSize / 4);
+            for (Map.Entry<Object, Entry> e : entries) {
+                if (excess <= 0 && now - e.getValue().expireAt < 0) {
+                    break;
+                }
+                if (cache.remove(e.getKey(), e.getValue())) {
+                    size.decrementAndGet();
+                    excess--;
+                }
+            }
+            log.debug("SPI route cache evicted, size:{}", cache.size());
+            return true;
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * 清空路由缓存
+     */
+    public void clear() {
+        for (Object key : cache.keySet()) {
+            if (cache.remove(key) != null) {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    public SPIRouter getDelegate() {
+        return delegate;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class Entry {
+        final String prefix;
+        final long expireAt;
+
+        Entry(String prefix, long expireAt) {
+            this.prefix = prefix;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package org.opensource.spring.spi.router;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.opensource.spring.spi.annotation.SPI;
+import org.opensource.spring.spi.annotation.SPIMatch;
+import org.opensource.spring.spi.proxy.SPIProxyFactory;
+import org.opensource.spring.spi.proxy.SPIProxyRegistry;
+
+import com.alibaba.ttl.TransmittableThreadLocal;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * 多维路由实现
+ *
+ * 路由键由租户、渠道、区域等多个维度组成时，不需要把所有组合拼接成prefix，每个组合注册一个bean。
+ * 1. 接口通过{@link SPI#dimensions()}声明维度，实现类通过{@link SPIMatch}声明匹配的维度取值，未声明的维度匹配任意取值；<br />
+ * 2. 容器刷新时为每个接口构建决策树，每层对应一个维度，分为具体取值和任意取值两个分支；<br />
+ * 3. 调用时按{@link SPIRouteContext}逐层查找，匹配维度最多的实现优先，同样多时靠前的维度具体的优先；<br />
+ * 4. 都不匹配时路由到默认实现(prefix为"")，可以配合{@link SPI#fallback()}使用；<br />
+ * 5. 返回驻留的{@link SPIPrefix}，分发表按id取分发目标。
+ *
+ * 路由上下文保存在TransmittableThreadLocal中，通过{@link #where(SPIRouteContext, Supplier)}设置，嵌套时合并外层上下文。
+ * 没有{@link SPIMatch}注解的实现不参与匹配，匹配条件完全相同的实现、未声明的维度在构建时抛出异常。
+ *
+ * 当{@link SPI}配置"dimensionalSPIRouter"时，使用该路由类。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@Component("dimensionalSPIRouter")
+public class DimensionalSPIRouter
+        implements IndexedSPIRouter, ApplicationContextAware, ApplicationListener<ContextRefreshedEvent> {
+    private static final Logger log = LoggerFactory.getLogger(DimensionalSPIRouter.class);
+
+    // 线程变量，当前的路由上下文，不可变，子线程直接共享
+    private static final TransmittableThreadLocal<SPIRouteContext> CONTEXT =
+            new TransmittableThreadLocal<SPIRouteContext>() {
+                @Override
+                protected SPIRouteContext initialValue() {
+                    return SPIRouteContext.EMPTY;
+                }
+            };
+
+    /**
+     * 接口的决策树
+     */
+    private final ConcurrentMap<Class<?>, RouteTree> trees = new ConcurrentHashMap<>();
+
+    private ApplicationContext applicationContext;
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * 获取当前线程的路由上下文
+     *
+     * @return
+     */
+    public static SPIRouteContext current() {
+        return CONTEXT.get();
+    }
+
+    /**
+     * 在路由上下文中执行，上下文合并到外层上下文，结束后恢复外层
+     *
+     * @param <T>
+     * @param context
+     * @param supplier
+     * @return
+     */
+    public static <T> T where(SPIRouteContext context, Supplier<T> supplier) {
+        SPIRouteContext outer = CONTEXT.get();
+        CONTEXT.set(outer.merge(context));
+        try {
+            return supplier.get();
+        } finally {
+            CONTEXT.set(outer);
+        }
+    }
+
+    /**
+     * 在路由上下文中执行
+     *
+     * @param context
+     * @param runnable
+     */
+    public static void run(SPIRouteContext context, Runnable runnable) {
+        where(context, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    @Override
+    public SPIPrefix routePrefix(MethodInvocation invocation) {
+        Class<?> ifc = invocation.getMethod().getDeclaringClass();
+        RouteTree tree = trees.get(ifc);
+        if (tree == null) {
+            tree = trees.computeIfAbsent(ifc, this::build);
+        }
+        return tree.match(CONTEXT.get());
+    }
+
+    /**
+     * 容器刷新时，为使用该路由的接口重新构建决策树，配置错误时启动失败
+     */
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        if (event.getApplicationContext() != applicationContext) {
+            return;
+        }
+        trees.clear();
+        SPIProxyRegistry registry = applicationContext.getBeanProvider(SPIProxyRegistry.class).getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        for (SPIProxyFactory proxyFactory : registry.getProxyFactories()) {
+            if (proxyFactory.getSpiRouter() == this) {
+                Class<?> ifc = proxyFactory.getServiceInterface();
+                trees.put(ifc, build(ifc));
+            }
+        }
+    }
+
+    /**
+     * 构建接口的决策树
+     *
+     * @param ifc
+     * @return
+     * @throws IllegalStateException 未声明维度、匹配条件重复时
+     */
+    protected RouteTree build(Class<?> ifc) {
+        SPI spi = AnnotationUtils.findAnnotation(ifc, SPI.class);
+        String[] names = spi != null ? spi.dimensions() : new String[0];
+        if (names.length == 0 || names.length > 16) {
+            throw new IllegalStateException("SPI interface " + ifc.getName()
+                    + " should declare 1 to 16 dimensions to use dimensionalSPIRouter");
+        }
+        Map<String, Integer> levels = new HashMap<>();
+        int[] dimensions = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            levels.put(names[i], i);
+            dimensions[i] = SPIRouteContext.dimension(names[i]);
+        }
+
+        Node root = new Node();
+        String suffix = ifc.getSimpleName();
+        for (String beanName : applicationContext.getBeanNamesForType(ifc, true, false)) {
+            SPIMatch match = applicationContext.findAnnotationOnBean(beanName, SPIMatch.class);
+            if (match == null || !beanName.endsWith(suffix)) {
+                continue;
+            }
+            String[] values = new String[names.length];
+            for (String item : match.value()) {
+                int index = item.indexOf('=');
+                Integer level = index > 0 ? levels.get(item.substring(0, index).trim()) : null;
+                if (level == null) {
+                    throw new IllegalStateException("SPI implementation " + beanName + " matches '" + item
+                            + "', expect dimension=value of " + String.join(",", names));
+                }
+                values[level] = item.substring(index + 1).trim();
+            }
+            SPIPrefix prefix = SPIPrefix.of(beanName.substring(0, beanName.length() - suffix.length()));
+            Node leaf = root.insert(values);
+            if (leaf.prefix != null) {
+                throw new IllegalStateException("SPI implementations " + leaf.prefix + suffix + " and " + beanName
+                        + " have the same match " + String.join(",", match.value()));
+            }
+            leaf.prefix = prefix;
+            leaf.rank = rank(values);
+        }
+        root.computeMaxRank();
+        log.info("SPI dimensional route: {} dimensions {}", ifc.getSimpleName(), String.join(",", names));
+        return new RouteTree(dimensions, root);
+    }
+
+    /**
+     * 匹配的具体程度：具体的维度数优先，其次靠前的维度具体的优先
+     */
+    private static int rank(String[] values) {
+        int mask = 0;
+        for (String value : values) {
+            mask = (mask << 1) | (value != null ? 1 : 0);
+        }
+        return (Integer.bitCount(mask) << 16) | mask;
+    }
+
+    /**
+     * 接口的决策树，构建后不可变
+     */
+    protected static final class RouteTree {
+        /**
+         * 每层对应的维度id
+         */
+        private final int[] dimensions;
+        private final Node root;
+
+        RouteTree(int[] dimensions, Node root) {
+            this.dimensions = dimensions;
+            this.root = root;
+        }
+
+        /**
+         * 查找最具体的匹配
+         *
+         * @param context
+         * @return 都不匹配时返回默认prefix
+         */
+        SPIPrefix match(SPIRouteContext context) {
+            Node best = match(root, 0, context, -1);
+            return best != null ? best.prefix : SPIPrefix.DEFAULT;
+        }
+
+        /**
+         * 查找子树中具体程度高于floor的最佳匹配，子树能达到的最大具体程度不超过floor时剪枝
+         */
+        private Node match(Node node, int level, SPIRouteContext context, int floor) {
+            if (node.maxRank <= floor) {
+                return null;
+            }
+            if (level == dimensions.length) {
+                return node.prefix != null ? node : null;
+            }
+            String value = context.get(dimensions[level]);
+            Node specific = value != null && node.children != null ? node.children.get(value) : null;
+            Node best = specific != null ? match(specific, level + 1, context, floor) : null;
+            if (node.any != null) {
+                // 任意取值的分支只有更具体时才替换
+                Node any = match(node.any, level + 1, context, best != null ? best.rank : floor);
+                if (any != null) {
+                    best = any;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * 决策树节点
+     */
+    private static final class Node {
+        /**
+         * 具体取值的分支，取值 -> 下一层
+         */
+        Map<String, Node> children;
+        /**
+         * 任意取值的分支
+         */
+        Node any;
+        /**
+         * 叶子节点匹配的实现
+         */
+        SPIPrefix prefix;
+        /**
+         * 叶子节点匹配的具体程度
+         */
+        int rank;
+        /**
+         * 子树中叶子节点的最大具体程度，没有叶子节点时为-1
+         */
+        int maxRank = -1;
+
+        /**
+         * 构建完成后计算子树的最大具体程度
+         */
+        int computeMaxRank() {
+            int max = prefix != null ? rank : -1;
+            if (children != null) {
+                for (Node child : children.values()) {
+                    max = Math.max(max, child.computeMaxRank());
+                }
+            }
+            if (any != null) {
+                max = Math.max(max, any.computeMaxRank());
+            }
+            maxRank = max;
+            return max;
+        }
+
+        Node insert(String[] values) {
+            Node node = this;
+            for (String value : values) {
+                if (value == null) {
+                    if (node.any == null) {
+                        node.any = new Node();
+                    }
+                    node = node.any;
+                } else {
+                    if (node.children == null) {
+                        node.children = new HashMap<>();
+                    }
+                    node = node.children.computeIfAbsent(value, v -> new Node());
+                }
+            }
+            return node;
+        }
+    }
+}
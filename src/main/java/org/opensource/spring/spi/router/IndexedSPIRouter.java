@@ -0,0 +1,29 @@
+package org.opensource.spring.spi.router;
+
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * 返回驻留prefix的策略路由
+ *
+ * 路由结果是有限的prefix时，实现该接口返回{@link SPIPrefix}句柄，
+ * 代理按句柄的id从分发表的数组取分发目标，避免每次调用的字符串哈希和比较，租户多的接口收益明显。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@FunctionalInterface
+public interface IndexedSPIRouter extends SPIRouter {
+    /**
+     * 计算路由prefix的驻留句柄
+     *
+     * @param invocation
+     * @return 为null时路由到默认实现
+     */
+    SPIPrefix routePrefix(MethodInvocation invocation);
+
+    @Override
+    default String route(MethodInvocation invocation) {
+        SPIPrefix prefix = routePrefix(invocation);
+        return prefix == null ? null : prefix.getValue();
+    }
+}
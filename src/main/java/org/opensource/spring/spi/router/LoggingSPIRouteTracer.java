@@ -0,0 +1,32 @@
+package org.opensource.spring.spi.router;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 日志输出的路由栈追踪
+ *
+ * 以debug级别打印{@link ThreadLocalSPIRouter}的压栈出栈，用于排查路由嵌套问题。
+ * 配置"spring.spi.route-trace=true"时在启动时开启，也可以运行时调用{@link ThreadLocalSPIRouter#setTracer(SPIRouteTracer)}开启。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public class LoggingSPIRouteTracer implements SPIRouteTracer {
+    private static final Logger log = LoggerFactory.getLogger(LoggingSPIRouteTracer.class);
+
+    @Override
+    public void onPush(String prefix, int depth) {
+        log.debug("SPI stack depth:{} pushPrefix:{}", depth, prefix);
+    }
+
+    @Override
+    public void onPop(String prefix, int depth) {
+        log.debug("SPI stack depth:{} popPrefix:{}", depth, prefix);
+    }
+
+    @Override
+    public void onClear() {
+        log.debug("SPI clear stack");
+    }
+}
@@ -0,0 +1,55 @@
+package org.opensource.spring.spi.router;
+
+/**
+ * SPI路由prefix栈
+ *
+ * 不可变的单链表栈，push返回新的栈顶节点，pop返回父节点，原节点不会被修改。
+ * 因此不需要加锁，传递给子线程时也只需要复制栈顶引用，不需要克隆整个栈。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+final class PrefixStack {
+    /**
+     * 栈底，默认prefix
+     */
+    static final PrefixStack ROOT = new PrefixStack("", null, 0);
+
+    /**
+     * 当前prefix
+     */
+    final String prefix;
+    /**
+     * 下一层节点，栈底为null
+     */
+    final PrefixStack parent;
+    /**
+     * 栈深度，栈底为0
+     */
+    final int depth;
+
+    private PrefixStack(String prefix, PrefixStack parent, int depth) {
+        this.prefix = prefix;
+        this.parent = parent;
+        this.depth = depth;
+    }
+
+    /**
+     * 压栈
+     *
+     * @param prefix
+     * @return 新的栈顶
+     */
+    PrefixStack push(String prefix) {
+        return new PrefixStack(prefix, this, depth + 1);
+    }
+
+    /**
+     * 是否为栈底
+     *
+     * @return
+     */
+    boolean isRoot() {
+        return parent == null;
+    }
+}
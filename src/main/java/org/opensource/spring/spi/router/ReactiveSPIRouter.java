@@ -0,0 +1,59 @@
+package org.opensource.spring.spi.router;
+
+import org.opensource.spring.spi.router.ReactiveSPIRouter.ReactorPresentCondition;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import reactor.util.context.ContextView;
+
+/**
+ * 响应式路由实现
+ *
+ * 1. 返回Publisher、Mono、Flux的接口方法，代理返回延迟的流，订阅时才路由和调用目标方法；<br />
+ * 2. 路由时从订阅者的Context读取{@link ReactiveSPIUtil#withPrefix}写入的prefix，不依赖ThreadLocal；<br />
+ * 3. 其他方法同步调用，使用{@link ThreadLocalSPIRouter}的prefix。
+ *
+ * 自定义响应式路由可以继承该类，重写{@link #route(MethodInvocation, ContextView)}。
+ * 只有类路径下存在reactor-core时才注册。
+ *
+ * 当{@link SPI}配置"reactiveSPIRouter"时，使用该路由类。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@Component("reactiveSPIRouter")
+@Conditional(ReactorPresentCondition.class)
+public class ReactiveSPIRouter implements SPIRouter {
+
+    /**
+     * 订阅时路由
+     *
+     * @param invocation
+     * @param context    订阅者的Context
+     * @return
+     */
+    public String route(MethodInvocation invocation, ContextView context) {
+        return ReactiveSPIUtil.getPrefix(context);
+    }
+
+    @Override
+    public String route(MethodInvocation invocation) {
+        return ThreadLocalSPIRouter.peekPrefix();
+    }
+
+    /**
+     * 类路径下存在reactor-core
+     */
+    static class ReactorPresentCondition implements Condition {
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return ClassUtils.isPresent("reactor.core.publisher.Mono", context.getClassLoader());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.opensource.spring.spi.router;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * 响应式SPI执行工具
+ *
+ * {@link SPIUtil#withPrefix}的响应式版本，把prefix写入订阅者的Context，配合{@link ReactiveSPIRouter}使用。
+ * 响应式流会在线程间切换，ThreadLocal无法跟随，Context随订阅传递，不需要手动桥接。
+ *
+ * prefix对上游的所有SPI调用生效，嵌套时靠近调用的withPrefix优先：
+ *
+ * <pre>
+ * ReactiveSPIUtil.withPrefix("a", Mono.zip(ReactiveSPIUtil.withPrefix("b", service.sayHello(param)),
+ *         service.sayHello(param)));
+ * </pre>
+ *
+ * 依赖reactor-core，只有类路径下存在reactor时才能使用。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public final class ReactiveSPIUtil {
+    /**
+     * prefix在Context中的key
+     */
+    public static final String PREFIX_KEY = ReactiveSPIUtil.class.getName() + ".prefix";
+
+    private ReactiveSPIUtil() {
+    }
+
+    /**
+     * 使用prefix配置订阅mono
+     *
+     * @param <T>
+     * @param prefix
+     * @param mono
+     * @return
+     */
+    public static <T> Mono<T> withPrefix(String prefix, Mono<T> mono) {
+        return mono.contextWrite(ctx -> ctx.put(PREFIX_KEY, prefix));
+    }
+
+    /**
+     * 使用prefix配置订阅flux
+     *
+     * @param <T>
+     * @param prefix
+     * @param flux
+     * @return
+     */
+    public static <T> Flux<T> withPrefix(String prefix, Flux<T> flux) {
+        return flux.contextWrite(ctx -> ctx.put(PREFIX_KEY, prefix));
+    }
+
+    /**
+     * 获取Context中的prefix
+     *
+     * @param context
+     * @return 未配置时返回null
+     */
+    public static String getPrefix(ContextView context) {
+        return context.getOrDefault(PREFIX_KEY, null);
+    }
+}
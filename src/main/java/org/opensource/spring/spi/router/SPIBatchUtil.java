@@ -0,0 +1,186 @@
+package org.opensource.spring.spi.router;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+import org.opensource.spring.spi.proxy.SPIDispatchTable;
+import org.opensource.spring.spi.proxy.SPIDispatchTarget;
+import org.opensource.spring.spi.proxy.SPIMethodInvocation;
+import org.opensource.spring.spi.proxy.SPIProxyFactory;
+
+import org.springframework.util.Assert;
+
+/**
+ * SPI批量执行工具
+ * 
+ * 一批参数(如订单列表)按元素路由到不同实现时，逐个通过代理调用需要每个元素路由、分发一次。
+ * 该工具对每个元素只计算一次路由，按路由到的目标bean分组，每个实现只调用一次批量方法，结果按原顺序返回。
+ * 
+ * <pre>
+ * List&lt;String&gt; results = SPIBatchUtil.batch(testService, params,
+ *         (service, param) -&gt; service.sayHello(param),            // 单个元素的调用，只用来计算路由
+ *         (service, group) -&gt; service.sayHelloBatch(group));      // 在目标实现上调用批量方法
+ * </pre>
+ * 
+ * 1. 路由使用代理配置的路由器和降级配置，路由调用不会真正执行；<br />
+ * 2. 批量方法直接调用目标实现，不经过代理，不采集分发指标；<br />
+ * 3. 批量方法返回的结果数必须与分组的元素数一致。
+ * 
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public class SPIBatchUtil {
+
+    /**
+     * 按路由分组，依次调用每个实现的批量方法
+     * 
+     * @param <S>       SPI接口
+     * @param <P>       元素类型
+     * @param <R>       结果类型
+     * @param proxy     注入的SPI代理对象
+     * @param elements  元素列表
+     * @param routeCall 单个元素的接口调用，用来计算该元素的路由
+     * @param batchCall 目标实现上的批量调用，返回与分组元素一一对应的结果
+     * @return 与elements顺序一致的结果
+     */
+    public static <S, P, R> List<R> batch(S proxy, Collection<? extends P> elements, BiConsumer<S, P> routeCall,
+            BiFunction<S, List<P>, List<R>> batchCall) {
+        return batch(proxy, elements, routeCall, batchCall, null);
+    }
+
+    /**
+     * 按路由分组，在线程池中并行调用每个实现的批量方法
+     * 
+     * 调用线程的路由上下文(TransmittableThreadLocal)会传递到线程池中。
+     * 
+     * @param <S>       SPI接口
+     * @param <P>       元素类型
+     * @param <R>       结果类型
+     * @param proxy     注入的SPI代理对象
+     * @param elements  元素列表
+     * @param routeCall 单个元素的接口调用，用来计算该元素的路由
+     * @param batchCall 目标实现上的批量调用，返回与分组元素一一对应的结果
+     * @param pool      执行分组调用的线程池，为null时在当前线程依次调用
+     * @return 与elements顺序一致的结果
+     */
+    public static <S, P, R> List<R> batch(S proxy, Collection<? extends P> elements, BiConsumer<S, P> routeCall,
+            BiFunction<S, List<P>, List<R>> batchCall, ForkJoinPool pool) {
+        Assert.notNull(elements, "'elements' must not be null");
+        Map<String, Group<S, P>> groups = group(proxy, elements, routeCall);
+
+        Object[] results = new Object[elements.size()];
+        if (pool == null || groups.size() <= 1) {
+            for (Group<S, P> group : groups.values()) {
+                group.call(batchCall, results);
+            }
+        } else {
+            Object captured = SPIUtil.capture();
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(groups.size());
+            for (Group<S, P> group : groups.values()) {
+                tasks.add(pool.submit(() -> SPIUtil.withCaptured(captured, () -> group.call(batchCall, results))));
+            }
+            // join直接抛出分组调用的RuntimeException
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        }
+
+        List<R> list = new ArrayList<>(results.length);
+        for (Object result : results) {
+            @SuppressWarnings("unchecked")
+            R r = (R) result;
+            list.add(r);
+        }
+        return list;
+    }
+
+    /**
+     * 计算每个元素的路由，按目标bean分组
+     * 
+     * @return beanName -> 分组，按元素第一次出现的顺序
+     */
+    private static <S, P> Map<String, Group<S, P>> group(S proxy, Collection<? extends P> elements,
+            BiConsumer<S, P> routeCall) {
+        SPIProxyFactory proxyFactory = SPIProxyFactory.forProxy(proxy);
+        SPIRouter router = proxyFactory.getSpiRouter();
+        SPIDispatchTable table = proxyFactory.getDispatchTable();
+        Recorder recorder = new Recorder();
+        @SuppressWarnings("unchecked")
+        S recording = (S) Proxy.newProxyInstance(proxyFactory.getServiceInterface().getClassLoader(),
+                new Class<?>[] { proxyFactory.getServiceInterface() }, (p, method, args) -> recorder.record(method, args));
+
+        Map<String, Group<S, P>> groups = new LinkedHashMap<>();
+        int index = 0;
+        for (P element : elements) {
+            routeCall.accept(recording, element);
+            Assert.state(recorder.method != null, "SPI batch routeCall must invoke a method of the SPI interface");
+            String prefix = router.route(new SPIMethodInvocation(recorder.method, proxy, recorder.args));
+            SPIDispatchTarget target = table.resolve(recorder.method, prefix == null ? "" : prefix);
+            recorder.method = null;
+
+            @SuppressWarnings("unchecked")
+            S bean = (S) target.getBean();
+            groups.computeIfAbsent(target.getBeanName(), name -> new Group<>(bean)).add(index++, element);
+        }
+        return groups;
+    }
+
+    /**
+     * 路由到同一目标bean的元素
+     */
+    private static final class Group<S, P> {
+        final S bean;
+        final List<Integer> indexes = new ArrayList<>();
+        final List<P> elements = new ArrayList<>();
+
+        Group(S bean) {
+            this.bean = bean;
+        }
+
+        void add(int index, P element) {
+            indexes.add(index);
+            elements.add(element);
+        }
+
+        <R> void call(BiFunction<S, List<P>, List<R>> batchCall, Object[] results) {
+            List<R> groupResults = batchCall.apply(bean, elements);
+            if (groupResults == null || groupResults.size() != elements.size()) {
+                throw new IllegalStateException("SPI batch call returned "
+                        + (groupResults == null ? "null" : groupResults.size() + " results") + " for "
+                        + elements.size() + " elements");
+            }
+            for (int i = 0; i < indexes.size(); i++) {
+                results[indexes.get(i)] = groupResults.get(i);
+            }
+        }
+    }
+
+    /**
+     * 记录路由调用的方法和参数，不执行
+     */
+    private static final class Recorder {
+        Method method;
+        Object[] args;
+
+        Object record(Method method, Object[] args) {
+            this.method = method;
+            this.args = args != null ? args : new Object[0];
+            return defaultValue(method.getReturnType());
+        }
+
+        private static Object defaultValue(Class<?> type) {
+            // 基本类型返回0值，避免拆箱空指针
+            return type.isPrimitive() && type != void.class ? Array.get(Array.newInstance(type, 1), 0) : null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.opensource.spring.spi.router;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * SPI广播调用异常
+ * 
+ * 广播调用中有实现抛出异常或者超时时抛出，包含每个失败实现的prefix和原始异常。
+ * 
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public class SPIBroadcastException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 失败的实现，prefix -> 异常，超时为{@link java.util.concurrent.TimeoutException}
+     */
+    private final Map<String, Throwable> failures;
+
+    public SPIBroadcastException(Map<String, Throwable> failures) {
+        super("SPI broadcast failed, prefixes: " + failures.keySet());
+        this.failures = Collections.unmodifiableMap(failures);
+        for (Throwable failure : failures.values()) {
+            addSuppressed(failure);
+        }
+    }
+
+    public Map<String, Throwable> getFailures() {
+        return failures;
+    }
+}
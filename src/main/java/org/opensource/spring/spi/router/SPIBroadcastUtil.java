@@ -0,0 +1,174 @@
+package org.opensource.spring.spi.router;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+import org.opensource.spring.spi.proxy.SPIProxyFactory;
+
+import org.springframework.util.Assert;
+
+/**
+ * SPI广播调用工具
+ * 
+ * 通知类的扩展点需要调用所有实现，该工具在线程池中并发调用SPI接口的所有实现(或者指定的prefix)，
+ * 用Collector汇总结果，耗时取决于最慢的实现，而不是所有实现之和。
+ * 
+ * <pre>
+ * List&lt;String&gt; results = SPIBroadcastUtil.broadcast(testService, service -&gt; service.sayHello(param),
+ *         Collectors.toList());
+ * </pre>
+ * 
+ * 1. 实现列表来自容器刷新后查找的实现表，按prefix排序，结果按同样的顺序交给Collector；<br />
+ * 2. 每个实现在线程池中执行，回放调用线程的路由上下文，并压入该实现的prefix，实现内部的嵌套SPI调用路由到同一prefix；<br />
+ * 3. 有实现抛出异常或者超时时，抛出{@link SPIBroadcastException}，超时未完成的调用会被中断。
+ * 
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public class SPIBroadcastUtil {
+
+    /**
+     * 在默认线程池中调用所有实现，不限制超时
+     * 
+     * @param <S>     SPI接口
+     * @param <R>     单个实现的结果
+     * @param <T>     汇总结果
+     * @param proxy   注入的SPI代理对象
+     * @param call    对单个实现的调用
+     * @param reducer 结果汇总
+     * @return
+     */
+    public static <S, R, T> T broadcast(S proxy, Function<S, R> call, Collector<? super R, ?, T> reducer) {
+        return broadcast(proxy, null, call, reducer, ForkJoinPool.commonPool(), null);
+    }
+
+    /**
+     * 在默认线程池中调用所有实现
+     * 
+     * @param <S>     SPI接口
+     * @param <R>     单个实现的结果
+     * @param <T>     汇总结果
+     * @param proxy   注入的SPI代理对象
+     * @param call    对单个实现的调用
+     * @param reducer 结果汇总
+     * @param timeout 超时时间，所有实现并发执行，也是整个广播的超时时间
+     * @return
+     */
+    public static <S, R, T> T broadcast(S proxy, Function<S, R> call, Collector<? super R, ?, T> reducer,
+            Duration timeout) {
+        return broadcast(proxy, null, call, reducer, ForkJoinPool.commonPool(), timeout);
+    }
+
+    /**
+     * 并发调用指定prefix的实现
+     * 
+     * @param <S>      SPI接口
+     * @param <R>      单个实现的结果
+     * @param <T>      汇总结果
+     * @param proxy    注入的SPI代理对象
+     * @param prefixes 调用的prefix，为null时调用所有实现，没有实现的prefix忽略
+     * @param call     对单个实现的调用
+     * @param reducer  结果汇总
+     * @param executor 执行调用的线程池
+     * @param timeout  超时时间，为null时不限制
+     * @return
+     */
+    public static <S, R, A, T> T broadcast(S proxy, Collection<String> prefixes, Function<S, R> call,
+            Collector<? super R, A, T> reducer, Executor executor, Duration timeout) {
+        Assert.notNull(call, "'call' must not be null");
+        Assert.notNull(reducer, "'reducer' must not be null");
+        Assert.notNull(executor, "'executor' must not be null");
+        SPIProxyFactory proxyFactory = SPIProxyFactory.forProxy(proxy);
+        Map<String, String> implementations = proxyFactory.getImplementations();
+
+        // 提交所有调用
+        Object captured = SPIUtil.capture();
+        Map<String, FutureTask<R>> futures = new LinkedHashMap<>();
+        for (Map.Entry<String, String> impl : implementations.entrySet()) {
+            String prefix = impl.getKey();
+            if (prefixes != null && !prefixes.contains(prefix)) {
+                continue;
+            }
+            @SuppressWarnings("unchecked")
+            S bean = (S) proxyFactory.getImplementation(impl.getValue());
+            FutureTask<R> future = new FutureTask<>(
+                    () -> SPIUtil.withCaptured(captured, () -> SPIUtil.withPrefix(prefix, () -> call.apply(bean))));
+            futures.put(prefix, future);
+            executor.execute(future);
+        }
+
+        await(futures.values(), timeout);
+
+        // 按prefix顺序汇总
+        A container = reducer.supplier().get();
+        Map<String, Throwable> failures = new LinkedHashMap<>();
+        for (Map.Entry<String, FutureTask<R>> entry : futures.entrySet()) {
+            FutureTask<R> future = entry.getValue();
+            // 超时未完成的调用中断执行线程
+            if (!future.isDone() && future.cancel(true)) {
+                failures.put(entry.getKey(), new TimeoutException("SPI broadcast timeout: " + timeout));
+                continue;
+            }
+            try {
+                reducer.accumulator().accept(container, getDone(future));
+            } catch (ExecutionException e) {
+                failures.put(entry.getKey(), e.getCause() != null ? e.getCause() : e);
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new SPIBroadcastException(failures);
+        }
+        return reducer.finisher().apply(container);
+    }
+
+    /**
+     * 等待所有调用完成或者超时
+     * 
+     * @param futures
+     * @param timeout 为null时不限制
+     */
+    private static void await(Collection<? extends Future<?>> futures, Duration timeout) {
+        long deadline = timeout == null ? 0L : System.nanoTime() + timeout.toNanos();
+        try {
+            for (Future<?> future : futures) {
+                try {
+                    if (timeout == null) {
+                        future.get();
+                    } else {
+                        future.get(Math.max(deadline - System.nanoTime(), 0L), TimeUnit.NANOSECONDS);
+                    }
+                } catch (ExecutionException e) {
+                    // 失败在汇总时逐个处理
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("SPI broadcast interrupted", e);
+        } catch (TimeoutException e) {
+            // 超时在汇总时逐个处理
+        }
+    }
+
+    /**
+     * 获取已完成调用的结果
+     */
+    private static <R> R getDone(Future<R> future) throws ExecutionException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("SPI broadcast interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.opensource.spring.spi.router;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.util.Assert;
+
+/**
+ * 驻留的路由prefix
+ *
+ * 同一个prefix只有一个实例，并分配一个从0开始的连续id。
+ * {@link IndexedSPIRouter}返回该句柄时，分发表按id直接从数组取分发目标，不再拼接、哈希、比较字符串。
+ *
+ * 驻留后不会释放，只用于取值有限的prefix(租户、区域、版本等)，不要驻留用户id之类无限的值。
+ * 启动时{@link org.opensource.spring.spi.proxy.SPIProxyRegistry}会驻留所有实现的prefix。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public final class SPIPrefix {
+    /**
+     * 已驻留的prefix
+     */
+    private static final ConcurrentMap<String, SPIPrefix> PREFIXES = new ConcurrentHashMap<>();
+    /**
+     * id生成器
+     */
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    /**
+     * 默认实现的prefix，beanName为接口名
+     */
+    public static final SPIPrefix DEFAULT = of("");
+
+    private final String value;
+    private final int id;
+
+    private SPIPrefix(String value, int id) {
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * 获取prefix的驻留句柄，不存在时分配id
+     *
+     * @param value
+     * @return
+     */
+    public static SPIPrefix of(String value) {
+        Assert.notNull(value, "prefix must not be null");
+        SPIPrefix prefix = PREFIXES.get(value);
+        if (prefix == null) {
+            prefix = PREFIXES.computeIfAbsent(value, v -> new SPIPrefix(v, NEXT_ID.getAndIncrement()));
+        }
+        return prefix;
+    }
+
+    /**
+     * 已驻留的prefix数量，也是下一个id
+     *
+     * @return
+     */
+    public static int count() {
+        return NEXT_ID.get();
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
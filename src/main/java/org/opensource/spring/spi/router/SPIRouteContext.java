@@ -0,0 +1,155 @@
+package org.opensource.spring.spi.router;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.util.Assert;
+
+/**
+ * 多维路由上下文
+ *
+ * 不可变，保存租户、渠道、区域等多个路由维度的取值，配合{@link DimensionalSPIRouter}使用。
+ * 维度名称驻留为从0开始的连续id，取值按id保存在数组中，路由时按id取值，不拼接字符串。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public final class SPIRouteContext {
+    /**
+     * 已驻留的维度，名称 -> id
+     */
+    private static final ConcurrentMap<String, Integer> DIMENSIONS = new ConcurrentHashMap<>();
+    /**
+     * 维度id生成器
+     */
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    /**
+     * 空上下文，所有维度都没有取值
+     */
+    public static final SPIRouteContext EMPTY = new SPIRouteContext(new String[0]);
+
+    /**
+     * 清除标记，按引用比较。{@link #with(String, String)}设置null时保存该标记，合并时覆盖外层的取值
+     */
+    private static final String CLEARED = new String("");
+
+    /**
+     * 维度取值，下标为维度id，没有设置时为null，清除时为{@link #CLEARED}
+     */
+    private final String[] values;
+
+    private SPIRouteContext(String[] values) {
+        this.values = values;
+    }
+
+    /**
+     * 获取维度的id，不存在时分配
+     *
+     * @param name 维度名称
+     * @return
+     */
+    public static int dimension(String name) {
+        Assert.hasText(name, "dimension must not be empty");
+        Integer id = DIMENSIONS.get(name);
+        if (id == null) {
+            id = DIMENSIONS.computeIfAbsent(name, n -> NEXT_ID.getAndIncrement());
+        }
+        return id;
+    }
+
+    /**
+     * 创建上下文
+     *
+     * @param dimensionValues 维度和取值交替，如("tenant", "acme", "region", "eu")
+     * @return
+     */
+    public static SPIRouteContext of(String... dimensionValues) {
+        Assert.isTrue(dimensionValues.length % 2 == 0, "dimensions and values must be in pairs");
+        SPIRouteContext context = EMPTY;
+        for (int i = 0; i < dimensionValues.length; i += 2) {
+            context = context.with(dimensionValues[i], dimensionValues[i + 1]);
+        }
+        return context;
+    }
+
+    /**
+     * 返回设置了维度取值的新上下文
+     *
+     * @param dimension 维度名称
+     * @param value     取值，为null时清除该维度，合并到外层时同样清除外层的取值
+     * @return
+     */
+    public SPIRouteContext with(String dimension, String value) {
+        int id = dimension(dimension);
+        String[] copy = Arrays.copyOf(values, Math.max(values.length, id + 1));
+        copy[id] = value != null ? value : CLEARED;
+        return new SPIRouteContext(copy);
+    }
+
+    /**
+     * 合并上下文，inner中设置了取值或者清除的维度覆盖当前上下文
+     *
+     * @param inner
+     * @return
+     */
+    public SPIRouteContext merge(SPIRouteContext inner) {
+        if (this.values.length == 0) {
+            return inner;
+        }
+        String[] copy = Arrays.copyOf(values, Math.max(values.length, inner.values.length));
+        for (int i = 0; i < inner.values.length; i++) {
+            if (inner.values[i] != null) {
+                copy[i] = inner.values[i];
+            }
+        }
+        return new SPIRouteContext(copy);
+    }
+
+    /**
+     * 获取维度取值
+     *
+     * @param dimension 维度id
+     * @return 没有取值时返回null
+     */
+    public String get(int dimension) {
+        String value = dimension < values.length ? values[dimension] : null;
+        return value != CLEARED ? value : null;
+    }
+
+    /**
+     * 获取维度取值
+     *
+     * @param dimension 维度名称
+     * @return 没有取值时返回null
+     */
+    public String get(String dimension) {
+        Integer id = DIMENSIONS.get(dimension);
+        return id == null ? null : get(id);
+    }
+
+    /**
+     * 转换为(维度名称 -> 取值)，用于日志和诊断
+     *
+     * @return
+     */
+    public Map<String, String> toMap() {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : DIMENSIONS.entrySet()) {
+            String value = get(entry.getValue());
+            if (value != null) {
+                map.put(entry.getKey(), value);
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return "SPIRouteContext" + toMap();
+    }
+}
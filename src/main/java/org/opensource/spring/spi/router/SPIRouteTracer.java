@@ -0,0 +1,39 @@
+package org.opensource.spring.spi.router;
+
+/**
+ * ThreadLocal路由栈追踪监听
+ *
+ * 用于诊断{@link ThreadLocalSPIRouter}的压栈出栈，通过{@link ThreadLocalSPIRouter#setTracer(SPIRouteTracer)}在运行时开启或关闭。
+ * 未设置时路由栈操作没有任何额外开销。
+ *
+ * 回调在业务线程中同步执行，实现需要足够轻量。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public interface SPIRouteTracer {
+
+    /**
+     * 压栈后回调
+     *
+     * @param prefix 压入的prefix
+     * @param depth  压栈后的栈深度
+     */
+    default void onPush(String prefix, int depth) {
+    }
+
+    /**
+     * 出栈后回调
+     *
+     * @param prefix 弹出的prefix
+     * @param depth  出栈后的栈深度
+     */
+    default void onPop(String prefix, int depth) {
+    }
+
+    /**
+     * 清理路由栈后回调
+     */
+    default void onClear() {
+    }
+}
@@ -2,6 +2,8 @@ package org.opensource.spring.spi.router;
 
 import java.util.function.Supplier;
 
+import com.alibaba.ttl.TransmittableThreadLocal.Transmitter;
+
 /**
  * SPI执行工具
  * 
@@ -46,4 +48,38 @@ public class SPIUtil {
             ThreadLocalSPIRouter.popPrefix();
         }
     }
+
+    /**
+     * 捕获当前线程的路由上下文(所有TransmittableThreadLocal)快照，用于在其他线程中回放
+     * 
+     * @return
+     */
+    public static Object capture() {
+        return Transmitter.capture();
+    }
+
+    /**
+     * 回放捕获的路由上下文，执行supplier函数，执行后恢复当前线程原有的上下文
+     * 
+     * @param <T>
+     * @param captured {@link #capture()}的返回值
+     * @param supplier
+     * @return
+     */
+    public static <T> T withCaptured(Object captured, Supplier<T> supplier) {
+        return Transmitter.runSupplierWithCaptured(captured, supplier);
+    }
+
+    /**
+     * 回放捕获的路由上下文，执行runnable函数，执行后恢复当前线程原有的上下文
+     * 
+     * @param captured {@link #capture()}的返回值
+     * @param runnable
+     */
+    public static void withCaptured(Object captured, Runnable runnable) {
+        Transmitter.runSupplierWithCaptured(captured, () -> {
+            runnable.run();
+            return null;
+        });
+    }
 }
@@ -0,0 +1,200 @@
+package org.opensource.spring.spi.router;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * 作用域路由实现，适用于大量短生命周期线程的场景。
+ * 
+ * 与{@link ThreadLocalSPIRouter}相同的栈式嵌套语义，但不依赖TransmittableThreadLocal：
+ * 1. prefix只在{@link #where(String, Supplier)}、{@link #run(String, Runnable)}等方法的作用域内有效，退出时自动恢复外层，不存在push/pop不配对；<br />
+ * 2. 绑定只创建一个不可变栈节点，O(1)，线程从未绑定时不会创建栈；<br />
+ * 3. 不会自动传递给子线程和线程池，需要通过{@link #wrap(Runnable)}、{@link #wrap(Executor)}显式继承，
+ * 继承时只引用父线程的栈顶节点，不复制栈。
+ * 
+ * 作用域的用法参考JDK的ScopedValue，但由于需要兼容java8，底层是普通ThreadLocal，不是ScopedValue：
+ * 绑定期间每个线程仍持有一个ThreadLocal条目，退出最外层作用域时移除，也不支持结构化并发的自动继承。
+ * 
+ * 当{@link SPI}配置"scopedSPIRouter"时，使用该路由类。
+ * 
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@Component("scopedSPIRouter")
+public class ScopedSPIRouter implements SPIRouter {
+
+    // 当前作用域的路由栈顶，未绑定时为null
+    private static final ThreadLocal<PrefixStack> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String route(MethodInvocation invocation) {
+        return current();
+    }
+
+    /**
+     * 当前作用域的prefix，未绑定时为默认prefix
+     * 
+     * @return
+     */
+    public static String current() {
+        PrefixStack stack = CURRENT.get();
+        return stack != null ? stack.prefix : PrefixStack.ROOT.prefix;
+    }
+
+    /**
+     * 当前作用域的嵌套深度，未绑定时为0
+     * 
+     * @return
+     */
+    public static int depth() {
+        PrefixStack stack = CURRENT.get();
+        return stack != null ? stack.depth : 0;
+    }
+
+    /**
+     * 在prefix作用域内执行supplier函数
+     * 
+     * @param <T>
+     * @param prefix
+     * @param supplier
+     * @return
+     */
+    public static <T> T where(String prefix, Supplier<T> supplier) {
+        Assert.notNull(prefix, "'prefix' must not be null");
+        PrefixStack previous = CURRENT.get();
+        CURRENT.set((previous != null ? previous : PrefixStack.ROOT).push(prefix));
+        try {
+            return supplier.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * 在prefix作用域内执行runnable函数
+     * 
+     * @param prefix
+     * @param runnable
+     */
+    public static void run(String prefix, Runnable runnable) {
+        where(prefix, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * 在prefix作用域内执行callable函数，抛出原始异常
+     * 
+     * @param <T>
+     * @param prefix
+     * @param callable
+     * @return
+     * @throws Exception
+     */
+    public static <T> T call(String prefix, Callable<T> callable) throws Exception {
+        try {
+            return where(prefix, () -> {
+                try {
+                    return callable.call();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CheckedException(e);
+                }
+            });
+        } catch (CheckedException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 包装runnable，在执行线程中继承当前作用域
+     * 
+     * @param runnable
+     * @return
+     */
+    public static Runnable wrap(Runnable runnable) {
+        PrefixStack captured = CURRENT.get();
+        if (captured == null) {
+            return runnable;
+        }
+        return () -> {
+            PrefixStack previous = CURRENT.get();
+            CURRENT.set(captured);
+            try {
+                runnable.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * 包装callable，在执行线程中继承当前作用域
+     * 
+     * @param <T>
+     * @param callable
+     * @return
+     */
+    public static <T> Callable<T> wrap(Callable<T> callable) {
+        PrefixStack captured = CURRENT.get();
+        if (captured == null) {
+            return callable;
+        }
+        return () -> {
+            PrefixStack previous = CURRENT.get();
+            CURRENT.set(captured);
+            try {
+                return callable.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * 包装线程池，提交的任务继承提交时的作用域
+     * 
+     * @param executor
+     * @return
+     */
+    public static Executor wrap(Executor executor) {
+        Assert.notNull(executor, "'executor' must not be null");
+        return command -> executor.execute(wrap(command));
+    }
+
+    /**
+     * 在supplier中传递callable抛出的受检异常
+     */
+    private static final class CheckedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        CheckedException(Exception cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized Exception getCause() {
+            return (Exception) super.getCause();
+        }
+    }
+
+    /**
+     * 恢复外层作用域，外层未绑定时移除线程变量
+     * 
+     * @param previous
+     */
+    private static void restore(PrefixStack previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
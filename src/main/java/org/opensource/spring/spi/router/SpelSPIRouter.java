@@ -1,47 +1,145 @@
 package org.opensource.spring.spi.router;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import org.opensource.spring.spi.annotation.ElCompilerMode;
 import org.opensource.spring.spi.annotation.ElParam;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
 import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 /**
  * SPEL策略路由实现
- * 
+ *
  * 1. 获取接口方法中第一个注解了@ElParam的参数; <br />
  * 2. 获取ElParam配置的el表达式；<br />
  * 3. 在对应的参数上执行el表达式，并返回String格式的结果；
  *
+ * 参数位置和解析后的表达式按方法缓存，只在第一次调用时解析。
+ * 表达式默认使用SPEL的{@link SpelCompilerMode#MIXED}编译模式，多次执行后编译为字节码，
+ * 可以通过{@link #setCompilerMode(SpelCompilerMode)}或者配置项"spring.spi.spel.compiler-mode"修改，
+ * {@link ElParam#compilerMode()}可以单独指定方法的编译模式。
+ *
  * 当{@link SPI}注解中配置"spelSPIRouter"时，使用该路由类。
- * 
+ *
  * @author wutianbiao
  * @date 2021-11-22
  */
 @Component("spelSPIRouter")
-public class SpelSPIRouter implements SPIRouter {
+public class SpelSPIRouter implements SPIRouter, EnvironmentAware, BeanClassLoaderAware {
     private static final Logger log = LoggerFactory.getLogger(SpelSPIRouter.class);
 
+    /**
+     * 编译模式配置项
+     */
+    public static final String COMPILER_MODE_PROPERTY = "spring.spi.spel.compiler-mode";
+
+    /**
+     * 方法路由元数据缓存
+     */
+    private final ConcurrentMap<Method, SpelRouteMetadata> metadataCache = new ConcurrentHashMap<>();
+    /**
+     * spel编译模式
+     */
+    private SpelCompilerMode compilerMode = SpelCompilerMode.MIXED;
+    /**
+     * spel编译使用的类加载器
+     */
+    private ClassLoader classLoader;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        String mode = environment.getProperty(COMPILER_MODE_PROPERTY);
+        if (StringUtils.hasText(mode)) {
+            setCompilerMode(SpelCompilerMode.valueOf(mode.trim().toUpperCase()));
+        }
+    }
+
+    @Override
+    public void setBeanClassLoader(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    public SpelCompilerMode getCompilerMode() {
+        return compilerMode;
+    }
+
+    /**
+     * 设置spel编译模式，清空已解析的表达式
+     *
+     * @param compilerMode
+     */
+    public void setCompilerMode(SpelCompilerMode compilerMode) {
+        this.compilerMode = compilerMode;
+        this.metadataCache.clear();
+    }
+
     @Override
     public String route(MethodInvocation invocation) {
+        SpelRouteMetadata metadata = getMetadata(invocation.getMethod());
+        // 计算el表达式
+        Object param = invocation.getArguments()[metadata.index];
+        String prefix = metadata.expression.getValue(param, String.class);
+        log.debug("计算的SPI路由prefix:{}", prefix);
+
+        return prefix;
+    }
+
+    /**
+     * 获取方法的路由元数据，未缓存时解析
+     *
+     * @param method
+     * @return
+     */
+    protected SpelRouteMetadata getMetadata(Method method) {
+        SpelRouteMetadata metadata = metadataCache.get(method);
+        if (metadata == null) {
+            metadata = metadataCache.computeIfAbsent(method, this::parseMetadata);
+        }
+        return metadata;
+    }
+
+    /**
+     * 获取方法解析后的路由表达式
+     *
+     * @param method 接口方法
+     * @return
+     */
+    public Expression getExpression(Method method) {
+        return getMetadata(method).expression;
+    }
+
+    /**
+     * 解析方法中第一个注解了@ElParam的参数位置和el表达式
+     *
+     * @param method
+     * @return
+     */
+    private SpelRouteMetadata parseMetadata(Method method) {
         // 获取el表达式
         String el = null;
-        Object param = null;
-        Annotation[][] parameterAnnotations = invocation.getMethod().getParameterAnnotations();
+        ElCompilerMode compilerMode = ElCompilerMode.DEFAULT;
+        int index = -1;
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
         out: for (int i = 0; i < parameterAnnotations.length; i++) {
             for (int j = 0; j < parameterAnnotations[i].length; j++) {
-                if (parameterAnnotations[i][j].annotationType().equals(ElParam.class)) {
-                    param = invocation.getArguments()[i];
-                    if (parameterAnnotations[i][j] instanceof ElParam) {
-                        el = ((ElParam) parameterAnnotations[i][j]).value();
-                    }
+                if (parameterAnnotations[i][j] instanceof ElParam) {
+                    index = i;
+                    el = ((ElParam) parameterAnnotations[i][j]).value();
+                    compilerMode = ((ElParam) parameterAnnotations[i][j]).compilerMode();
                     break out;
                 }
             }
@@ -51,13 +149,30 @@ public class SpelSPIRouter implements SPIRouter {
             throw new RuntimeException("SPI未获取到SPIParam的el配置");
         }
 
-        // 计算el表达式
-        ExpressionParser parser = new SpelExpressionParser();
-        Expression exp = parser.parseExpression(el);
-        String prefix = exp.getValue(param, String.class);
-        log.debug("计算的SPI路由prefix:{}", prefix);
+        // 注解指定的编译模式优先
+        SpelCompilerMode mode = compilerMode != ElCompilerMode.DEFAULT
+                ? SpelCompilerMode.valueOf(compilerMode.name()) : this.compilerMode;
+        SpelExpressionParser parser = new SpelExpressionParser(new SpelParserConfiguration(mode, classLoader));
+        return new SpelRouteMetadata(index, parser.parseExpression(el));
+    }
 
-        return prefix;
+    /**
+     * 方法路由元数据
+     */
+    protected static final class SpelRouteMetadata {
+        /**
+         * 注解了{@link ElParam}的参数位置
+         */
+        final int index;
+        /**
+         * 解析后的el表达式
+         */
+        final Expression expression;
+
+        SpelRouteMetadata(int index, Expression expression) {
+            this.index = index;
+            this.expression = expression;
+        }
     }
 
 }
@@ -0,0 +1,271 @@
+package org.opensource.spring.spi.router;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.PatternMatchUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * 路由表路由实现
+ *
+ * 在{@link SpelSPIRouter}的基础上，把el表达式的计算结果作为key，查找路由表得到prefix，
+ * 可以不重新发布，修改路由表文件切换实现。
+ *
+ * 路由表文件每行一条规则"key = prefix"，#开头为注释：
+ *
+ * <pre>
+ * # 精确匹配
+ * vip = a
+ * # 通配符，按文件中的顺序匹配
+ * tenant-* = b
+ * # 按百分比分流，按key的哈希选择，同一key总是分到同一prefix
+ * * = a:90,b:10
+ * </pre>
+ *
+ * 1. 先精确匹配，再按顺序匹配通配符规则，都没有匹配时使用key作为prefix，与{@link SpelSPIRouter}一致；<br />
+ * 2. 路由表不可变，重新加载时整体替换，查找无锁；<br />
+ * 3. 配置"spring.spi.route-table.file"指定文件路径，默认通过{@link WatchService}监听文件变化自动重新加载，
+ * "spring.spi.route-table.watch=false"关闭监听；加载失败时保留原路由表。建议先写临时文件再重命名覆盖，避免读到写了一半的文件。
+ *
+ * 当{@link SPI}配置"tableSPIRouter"时，使用该路由类。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@Component("tableSPIRouter")
+public class TableSPIRouter extends SpelSPIRouter implements InitializingBean, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(TableSPIRouter.class);
+
+    /**
+     * 路由表文件配置项
+     */
+    public static final String FILE_PROPERTY = "spring.spi.route-table.file";
+    /**
+     * 监听路由表文件配置项
+     */
+    public static final String WATCH_PROPERTY = "spring.spi.route-table.watch";
+
+    /**
+     * 文件变化后等待平静的时间
+     */
+    private static final long DEBOUNCE_MILLIS = 100;
+
+    /**
+     * 当前路由表
+     */
+    private volatile RouteTable table = RouteTable.EMPTY;
+    /**
+     * 路由表文件
+     */
+    private Path file;
+    /**
+     * 是否监听文件变化
+     */
+    private boolean watch = true;
+    /**
+     * 文件监听
+     */
+    private WatchService watchService;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        super.setEnvironment(environment);
+        String file = environment.getProperty(FILE_PROPERTY);
+        if (StringUtils.hasText(file)) {
+            setFile(Paths.get(file.trim()));
+        }
+        setWatch(environment.getProperty(WATCH_PROPERTY, Boolean.class, true));
+    }
+
+    public void setFile(Path file) {
+        this.file = file;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public void setWatch(boolean watch) {
+        this.watch = watch;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (file == null) {
+            return;
+        }
+        reload();
+        if (watch) {
+            startWatch();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    @Override
+    public String route(MethodInvocation invocation) {
+        String key = super.route(invocation);
+        return table.lookup(key);
+    }
+
+    /**
+     * 从文件重新加载路由表
+     *
+     * @throws IOException 读取文件失败
+     * @throws IllegalArgumentException 规则格式错误
+     */
+    public void reload() throws IOException {
+        setRules(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        log.info("SPI route table loaded: {}", file);
+    }
+
+    /**
+     * 设置路由规则，整体替换当前路由表
+     *
+     * @param rules 路由表文件内容
+     * @throws IllegalArgumentException 规则格式错误
+     */
+    public void setRules(String rules) {
+        this.table = RouteTable.parse(rules);
+    }
+
+    /**
+     * 监听路由表文件所在目录，文件创建、修改时重新加载
+     *
+     * @throws IOException
+     */
+    private void startWatch() throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Path fileName = file.getFileName();
+        watchService = FileSystems.getDefault().newWatchService();
+        dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        Thread watcher = new Thread(() -> {
+            try {
+                while (true) {
+                    // 写文件时会连续产生多个事件(先清空再写入)，等待事件平静后再加载
+                    boolean changed = false;
+                    for (WatchKey key = watchService.take(); key != null;
+                            key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) {
+                        for (WatchEvent<?> event : key.pollEvents()) {
+                            changed |= fileName.equals(event.context());
+                        }
+                        key.reset();
+                    }
+                    if (changed) {
+                        try {
+                            reload();
+                        } catch (IOException | RuntimeException e) {
+                            log.error("SPI route table reload failed, keep the current table: {}", file, e);
+                        }
+                    }
+                }
+            } catch (ClosedWatchServiceException | InterruptedException e) {
+                log.debug("SPI route table watch stopped: {}", file);
+            }
+        }, "spi-route-table-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * 不可变路由表
+     */
+    static final class RouteTable {
+        static final RouteTable EMPTY = new RouteTable(Collections.emptyMap(), new String[0],
+                new WeightedPrefixSelector[0]);
+
+        /**
+         * 精确匹配规则
+         */
+        private final Map<String, WeightedPrefixSelector> exact;
+        /**
+         * 通配符规则，按文件中的顺序
+         */
+        private final String[] patterns;
+        private final WeightedPrefixSelector[] patternSelectors;
+
+        private RouteTable(Map<String, WeightedPrefixSelector> exact, String[] patterns,
+                WeightedPrefixSelector[] patternSelectors) {
+            this.exact = exact;
+            this.patterns = patterns;
+            this.patternSelectors = patternSelectors;
+        }
+
+        String lookup(String key) {
+            if (key == null) {
+                return null;
+            }
+            WeightedPrefixSelector selector = exact.get(key);
+            if (selector == null) {
+                for (int i = 0; i < patterns.length; i++) {
+                    if (PatternMatchUtils.simpleMatch(patterns[i], key)) {
+                        selector = patternSelectors[i];
+                        break;
+                    }
+                }
+            }
+            return selector != null ? selector.selectByKey(key) : key;
+        }
+
+        static RouteTable parse(String rules) {
+            Map<String, WeightedPrefixSelector> exact = new HashMap<>();
+            List<String> patterns = new ArrayList<>();
+            List<WeightedPrefixSelector> patternSelectors = new ArrayList<>();
+            String[] lines = rules.split("\\r?\\n");
+            for (int i = 0; i < lines.length; i++) {
+                String line = lines[i].trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int index = line.indexOf('=');
+                if (index <= 0) {
+                    throw new IllegalArgumentException("Invalid SPI route rule at line " + (i + 1) + ": " + line);
+                }
+                String key = line.substring(0, index).trim();
+                WeightedPrefixSelector selector;
+                try {
+                    selector = WeightedPrefixSelector.parse(line.substring(index + 1).trim());
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("Invalid SPI route rule at line " + (i + 1) + ": " + line, e);
+                }
+                if (key.indexOf('*') >= 0) {
+                    patterns.add(key);
+                    patternSelectors.add(selector);
+                } else {
+                    exact.put(key, selector);
+                }
+            }
+            return new RouteTable(exact, patterns.toArray(new String[0]),
+                    patternSelectors.toArray(new WeightedPrefixSelector[0]));
+        }
+    }
+}
@@ -1,13 +1,12 @@
 package org.opensource.spring.spi.router;
 
-import java.util.EmptyStackException;
-import java.util.Stack;
-
 import com.alibaba.ttl.TransmittableThreadLocal;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
 /**
@@ -16,6 +15,8 @@ import org.springframework.stereotype.Component;
  * 使用ThreadLocal存取路由配置。
  * 1. 借助阿里的TTL支持子线程、stream并发流线程和TransmittableThreadLocal线程池路由传递。
  * 2. 借助栈结构实现路由的嵌套处理，避免底层修改污染上层空间。
+ * 3. 栈为不可变链表，压栈出栈不加锁，传递给子线程只复制栈顶引用。
+ * 4. 路由栈的诊断通过{@link SPIRouteTracer}开启，未开启时没有日志开销。
  * 
  * 默认路由实现，当{@link SPI}为指定路由器时，该路由器生效。也可以显示指定。
  * 
@@ -23,24 +24,24 @@ import org.springframework.stereotype.Component;
  * @date 2021-11-24
  */
 @Component("threadLocalSPIRouter")
-public class ThreadLocalSPIRouter implements SPIRouter {
+public class ThreadLocalSPIRouter implements SPIRouter, EnvironmentAware {
     private static Logger log = LoggerFactory.getLogger(ThreadLocalSPIRouter.class);
 
-    private static String DEFAULT_PREFIX_STRING = "";
+    private static String DEFAULT_PREFIX_STRING = PrefixStack.ROOT.prefix;
 
-    // 线程变量，业务路由栈
-    private static TransmittableThreadLocal<Stack<String>> PREFIX = new TransmittableThreadLocal<Stack<String>>() {
-        @Override
-        @SuppressWarnings("unchecked")
-        protected Stack<String> childValue(Stack<String> parentValue) {
-            return (Stack<String>) parentValue.clone();
-        }
+    /**
+     * 开启路由栈日志追踪的配置项
+     */
+    public static final String TRACE_PROPERTY = "spring.spi.route-trace";
+
+    // 路由栈追踪，为null时关闭
+    private static volatile SPIRouteTracer tracer;
 
+    // 线程变量，业务路由栈顶。栈不可变，子线程直接共享父线程的栈顶
+    private static TransmittableThreadLocal<PrefixStack> PREFIX = new TransmittableThreadLocal<PrefixStack>() {
         @Override
-        protected Stack<String> initialValue() {
-            Stack<String> stack = new Stack<>();
-            stack.push(DEFAULT_PREFIX_STRING);
-            return stack;
+        protected PrefixStack initialValue() {
+            return PrefixStack.ROOT;
         }
     };
 
@@ -53,8 +54,12 @@ public class ThreadLocalSPIRouter implements SPIRouter {
         if (prefix == null) {
             return;
         }
-        log.info("SPI stack:{} pushPrefix:{}", System.identityHashCode(ThreadLocalSPIRouter.PREFIX.get()), prefix);
-        ThreadLocalSPIRouter.PREFIX.get().push(prefix);
+        PrefixStack stack = ThreadLocalSPIRouter.PREFIX.get().push(prefix);
+        ThreadLocalSPIRouter.PREFIX.set(stack);
+        SPIRouteTracer t = tracer;
+        if (t != null) {
+            t.onPush(prefix, stack.depth);
+        }
     }
 
     /**
@@ -64,13 +69,19 @@ public class ThreadLocalSPIRouter implements SPIRouter {
      */
     public static String popPrefix() {
         String result = null;
-        try {
-            result = ThreadLocalSPIRouter.PREFIX.get().pop();
-        } catch (EmptyStackException e) {
+        PrefixStack stack = ThreadLocalSPIRouter.PREFIX.get();
+        if (stack.isRoot()) {
             log.warn("pop spi route prefix with empty stack! return default");
             result = DEFAULT_PREFIX_STRING;
+        } else {
+            result = stack.prefix;
+            stack = stack.parent;
+            ThreadLocalSPIRouter.PREFIX.set(stack);
+        }
+        SPIRouteTracer t = tracer;
+        if (t != null) {
+            t.onPop(result, stack.depth);
         }
-        log.info("SPI stack:{} pushPrefix:{}", System.identityHashCode(ThreadLocalSPIRouter.PREFIX.get()), result);
         return result;
     }
 
@@ -80,20 +91,57 @@ public class ThreadLocalSPIRouter implements SPIRouter {
      * @return
      */
     public static String peekPrefix() {
-        return ThreadLocalSPIRouter.PREFIX.get().peek();
+        return ThreadLocalSPIRouter.PREFIX.get().prefix;
+    }
+
+    /**
+     * 当前路由栈深度，没有压栈时为0
+     * 
+     * @return
+     */
+    public static int depth() {
+        return ThreadLocalSPIRouter.PREFIX.get().depth;
     }
 
     /**
      * 清理当前线程的SPI路由的prefix
      */
     public static void clear() {
-        log.info("SPI clear stack: {}", System.identityHashCode(ThreadLocalSPIRouter.PREFIX.get()));
-        ThreadLocalSPIRouter.PREFIX.get().clear();
+        ThreadLocalSPIRouter.PREFIX.remove();
+        SPIRouteTracer t = tracer;
+        if (t != null) {
+            t.onClear();
+        }
+    }
+
+    /**
+     * 设置路由栈追踪，传入null关闭
+     *
+     * @param tracer
+     */
+    public static void setTracer(SPIRouteTracer tracer) {
+        ThreadLocalSPIRouter.tracer = tracer;
+    }
+
+    /**
+     * 获取当前的路由栈追踪
+     *
+     * @return
+     */
+    public static SPIRouteTracer getTracer() {
+        return tracer;
+    }
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        if (environment.getProperty(TRACE_PROPERTY, Boolean.class, false) && tracer == null) {
+            setTracer(new LoggingSPIRouteTracer());
+        }
     }
 
     @Override
     public String route(MethodInvocation invocation) {
-        return ThreadLocalSPIRouter.PREFIX.get().peek();
+        return ThreadLocalSPIRouter.PREFIX.get().prefix;
     }
 
 }
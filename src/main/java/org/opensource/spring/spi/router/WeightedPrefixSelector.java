@@ -0,0 +1,179 @@
+package org.opensource.spring.spi.router;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * 按权重选择prefix
+ *
+ * 不可变，prefix和累计权重保存在数组中，选择时二分查找，无锁。
+ * 权重配置格式为"a:90,b:10"，省略权重时为1，单个prefix时总是选择该prefix。
+ * 按key选择时，key先哈希到固定的桶，再按权重比例映射到prefix，同一key总是选择同一prefix。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public final class WeightedPrefixSelector {
+    /**
+     * 哈希桶数，key先哈希到桶，再按权重比例映射到prefix
+     */
+    private static final int BUCKETS = 10000;
+
+    /**
+     * prefix
+     */
+    private final String[] prefixes;
+    /**
+     * 累计权重，cumulative[i]为前i+1个prefix的权重之和
+     */
+    private final int[] cumulative;
+
+    public WeightedPrefixSelector(String[] prefixes, int[] weights) {
+        Assert.isTrue(prefixes.length > 0 && prefixes.length == weights.length,
+                "prefixes and weights must have the same non-zero length");
+        this.prefixes = prefixes.clone();
+        this.cumulative = new int[weights.length];
+        int total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            Assert.isTrue(weights[i] >= 0, "weight must not be negative");
+            total = Math.addExact(total, weights[i]);
+            cumulative[i] = total;
+        }
+        Assert.isTrue(total > 0, "total weight must be positive");
+    }
+
+    /**
+     * 解析权重配置
+     *
+     * @param spec 如"a:90,b:10"，或者单个prefix
+     * @return
+     */
+    public static WeightedPrefixSelector parse(String spec) {
+        String[] items = StringUtils.commaDelimitedListToStringArray(spec);
+        if (items.length == 0) {
+            items = new String[] { "" };
+        }
+        String[] prefixes = new String[items.length];
+        int[] weights = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            String item = items[i].trim();
+            int index = item.lastIndexOf(':');
+            if (index < 0) {
+                prefixes[i] = item;
+                weights[i] = 1;
+            } else {
+                prefixes[i] = item.substring(0, index).trim();
+                weights[i] = Integer.parseInt(item.substring(index + 1).trim());
+            }
+        }
+        return new WeightedPrefixSelector(prefixes, weights);
+    }
+
+    /**
+     * 按权重点选择prefix
+     *
+     * @param point 权重点，取值[0, totalWeight)
+     * @return
+     */
+    public String select(int point) {
+        return prefixes[indexOf(point)];
+    }
+
+    /**
+     * 权重点所在的prefix下标
+     *
+     * @param point 权重点，取值[0, totalWeight)
+     * @return
+     */
+    public int indexOf(int point) {
+        if (prefixes.length == 1) {
+            return 0;
+        }
+        int index = Arrays.binarySearch(cumulative, point + 1);
+        return index >= 0 ? firstOf(index) : -index - 1;
+    }
+
+    /**
+     * 累计权重相同(中间有0权重)时取第一个
+     */
+    private int firstOf(int index) {
+        while (index > 0 && cumulative[index - 1] == cumulative[index]) {
+            index--;
+        }
+        return index;
+    }
+
+    /**
+     * 按key的哈希选择prefix，同一key总是选择同一prefix
+     *
+     * @param key
+     * @return
+     */
+    public String selectByKey(String key) {
+        return prefixes.length == 1 ? prefixes[0] : select(point(key, getTotalWeight()));
+    }
+
+    /**
+     * key在权重范围内的点：哈希到固定的桶，再按比例缩放
+     *
+     * @param key
+     * @param totalWeight
+     * @return
+     */
+    static int point(String key, int totalWeight) {
+        int bucket = Math.floorMod(mix(key.hashCode()), BUCKETS);
+        return (int) ((long) bucket * totalWeight / BUCKETS);
+    }
+
+    /**
+     * murmur3的fmix32，打散相近的hashCode
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * 随机选择prefix
+     *
+     * @return
+     */
+    public String selectRandom() {
+        return prefixes.length == 1 ? prefixes[0] : select(ThreadLocalRandom.current().nextInt(getTotalWeight()));
+    }
+
+    public int getTotalWeight() {
+        return cumulative[cumulative.length - 1];
+    }
+
+    public int size() {
+        return prefixes.length;
+    }
+
+    public String getPrefix(int index) {
+        return prefixes[index];
+    }
+
+    public String[] getPrefixes() {
+        return prefixes.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < prefixes.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(prefixes[i]).append(':').append(cumulative[i] - (i == 0 ? 0 : cumulative[i - 1]));
+        }
+        return sb.toString();
+    }
+}
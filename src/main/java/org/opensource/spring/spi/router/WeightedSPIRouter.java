@@ -0,0 +1,142 @@
+package org.opensource.spring.spi.router;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * 按权重分流的路由实现，用于新实现的灰度发布
+ *
+ * 在{@link SpelSPIRouter}的基础上，把el表达式的计算结果(如客户id)哈希到固定的桶中，按权重映射到prefix，
+ * 同一个key总是路由到同一个实现。
+ *
+ * 1. 每个接口的权重通过配置项"spring.spi.weighted.接口名=v1:95,v2:5"或者{@link #setWeights(Class, String)}配置；<br />
+ * 2. 只调大最后一个prefix的权重时，原来路由到它的key不会变化，适合逐步放量；<br />
+ * 3. 权重不可变，修改时整体替换，选择无锁；每个prefix的选择次数用LongAdder计数；<br />
+ * 4. key为null时随机选择；<br />
+ * 5. 返回驻留的{@link SPIPrefix}，分发表按id取分发目标。
+ *
+ * 当{@link SPI}配置"weightedSPIRouter"时，使用该路由类。
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@Component("weightedSPIRouter")
+public class WeightedSPIRouter extends SpelSPIRouter implements IndexedSPIRouter {
+    private static final Logger log = LoggerFactory.getLogger(WeightedSPIRouter.class);
+
+    /**
+     * 权重配置项前缀
+     */
+    public static final String WEIGHTS_PROPERTY_PREFIX = "spring.spi.weighted.";
+
+    /**
+     * 接口的分流配置
+     */
+    private final ConcurrentMap<Class<?>, Variants> variants = new ConcurrentHashMap<>();
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        super.setEnvironment(environment);
+        this.environment = environment;
+    }
+
+    /**
+     * 设置接口的权重，整体替换原有配置和计数
+     *
+     * @param serviceInterface SPI接口
+     * @param weights          如"v1:95,v2:5"
+     */
+    public void setWeights(Class<?> serviceInterface, String weights) {
+        Variants v = new Variants(WeightedPrefixSelector.parse(weights));
+        variants.put(serviceInterface, v);
+        log.info("SPI weighted route: {} -> {}", serviceInterface.getSimpleName(), v.selector);
+    }
+
+    @Override
+    public String route(MethodInvocation invocation) {
+        return routePrefix(invocation).getValue();
+    }
+
+    @Override
+    public SPIPrefix routePrefix(MethodInvocation invocation) {
+        String key = super.route(invocation);
+        Variants v = getVariants(invocation.getMethod().getDeclaringClass());
+        int total = v.selector.getTotalWeight();
+        int index = v.selector.indexOf(
+                key == null ? ThreadLocalRandom.current().nextInt(total) : WeightedPrefixSelector.point(key, total));
+        v.counts[index].increment();
+        return v.prefixes[index];
+    }
+
+    /**
+     * 获取接口的分流配置，未设置时从配置项读取
+     *
+     * @param serviceInterface
+     * @return
+     */
+    private Variants getVariants(Class<?> serviceInterface) {
+        Variants v = variants.get(serviceInterface);
+        if (v == null) {
+            String weights = environment != null
+                    ? environment.getProperty(WEIGHTS_PROPERTY_PREFIX + serviceInterface.getSimpleName())
+                    : null;
+            if (!StringUtils.hasText(weights)) {
+                throw new IllegalStateException("SPI weighted route not configured for " + serviceInterface.getName()
+                        + ", set " + WEIGHTS_PROPERTY_PREFIX + serviceInterface.getSimpleName());
+            }
+            v = variants.computeIfAbsent(serviceInterface, c -> new Variants(WeightedPrefixSelector.parse(weights)));
+        }
+        return v;
+    }
+
+    /**
+     * 获取接口每个prefix的选择次数
+     *
+     * @param serviceInterface
+     * @return prefix -> 次数，未配置时为空
+     */
+    public Map<String, Long> getCounts(Class<?> serviceInterface) {
+        Variants v = variants.get(serviceInterface);
+        if (v == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < v.counts.length; i++) {
+            counts.merge(v.selector.getPrefix(i), v.counts[i].sum(), Long::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * 不可变的分流配置和计数
+     */
+    private static final class Variants {
+        final WeightedPrefixSelector selector;
+        final SPIPrefix[] prefixes;
+        final LongAdder[] counts;
+
+        Variants(WeightedPrefixSelector selector) {
+            this.selector = selector;
+            this.prefixes = new SPIPrefix[selector.size()];
+            this.counts = new LongAdder[selector.size()];
+            for (int i = 0; i < counts.length; i++) {
+                prefixes[i] = SPIPrefix.of(selector.getPrefix(i));
+                counts[i] = new LongAdder();
+            }
+        }
+    }
+}
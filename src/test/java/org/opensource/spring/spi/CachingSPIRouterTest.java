@@ -0,0 +1,132 @@
+package org.opensource.spring.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.opensource.spring.spi.proxy.SPIMethodInvocation;
+import org.opensource.spring.spi.router.CachingSPIRouter;
+import org.opensource.spring.spi.ttl.TestService;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 路由缓存测试
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public class CachingSPIRouterTest {
+
+    private final AtomicInteger routeCount = new AtomicInteger();
+
+    private final ChannelRoute channelRoute = new ChannelRoute() {
+        @Override
+        public String route(MethodInvocation invocation) {
+            routeCount.incrementAndGet();
+            return super.route(invocation);
+        }
+    };
+
+    private MethodInvocation invocation(String channel) throws NoSuchMethodException {
+        Method method = TestService.class.getMethod("sayHello", BaseParam.class);
+        BaseParam param = new BaseParam();
+        param.setChannel(channel);
+        return new SPIMethodInvocation(method, null, new Object[] { param });
+    }
+
+    @Test
+    void testCache() throws NoSuchMethodException {
+        CachingSPIRouter router = new CachingSPIRouter(channelRoute,
+                invocation -> ((BaseParam) invocation.getArguments()[0]).getChannel(), 16, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("a", router.route(invocation("a")));
+            assertEquals("b", router.route(invocation("b")));
+        }
+        assertEquals(2, routeCount.get());
+        assertEquals(18, router.getHitCount());
+    }
+
+    @Test
+    void testMaxSize() throws NoSuchMethodException {
+        CachingSPIRouter router = new CachingSPIRouter(channelRoute,
+                invocation -> ((BaseParam) invocation.getArguments()[0]).getChannel(), 8, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals("c" + i, router.route(invocation("c" + i)));
+            assertTrue(router.size() <= 8);
+        }
+    }
+
+    @Test
+    void testConcurrentMaxSize() throws Exception {
+        CachingSPIRouter router = new CachingSPIRouter(channelRoute,
+                invocation -> ((BaseParam) invocation.getArguments()[0]).getChannel(), 64, Duration.ofMinutes(1));
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger maxSeen = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 2000; i++) {
+                        String channel = "c" + thread + "-" + i;
+                        assertEquals(channel, router.route(invocation(channel)));
+                        maxSeen.accumulateAndGet(router.size(), Math::max);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(maxSeen.get() <= 64, "max size: " + maxSeen.get());
+        assertTrue(router.size() <= 64);
+    }
+
+    @Test
+    void testEvictOldest() throws NoSuchMethodException {
+        CachingSPIRouter router = new CachingSPIRouter(channelRoute,
+                invocation -> ((BaseParam) invocation.getArguments()[0]).getChannel(), 4, Duration.ofMinutes(1));
+        for (int i = 0; i < 5; i++) {
+            router.route(invocation("c" + i));
+        }
+        // 写入第5个时淘汰最早写入的c0
+        routeCount.set(0);
+        router.route(invocation("c4"));
+        router.route(invocation("c3"));
+        assertEquals(0, routeCount.get());
+        router.route(invocation("c0"));
+        assertEquals(1, routeCount.get());
+    }
+
+    @Test
+    void testExpire() throws NoSuchMethodException, InterruptedException {
+        CachingSPIRouter router = new CachingSPIRouter(channelRoute,
+                invocation -> ((BaseParam) invocation.getArguments()[0]).getChannel(), 8, Duration.ofMillis(1));
+
+        router.route(invocation("a"));
+        Thread.sleep(5);
+        router.route(invocation("a"));
+        assertEquals(2, routeCount.get());
+    }
+}
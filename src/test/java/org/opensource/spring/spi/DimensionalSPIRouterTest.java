@@ -0,0 +1,84 @@
+package org.opensource.spring.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.opensource.spring.spi.dimension.DimensionService;
+import org.opensource.spring.spi.proxy.SPIMethodInvocation;
+import org.opensource.spring.spi.router.DimensionalSPIRouter;
+import org.opensource.spring.spi.router.SPIRouteContext;
+import org.opensource.spring.spi.spel.TestSpelService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+/**
+ * 多维路由测试
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SpringJUnitConfig(SPIConfig.class)
+public class DimensionalSPIRouterTest {
+
+    @Autowired
+    private DimensionService dimensionService;
+
+    @Autowired
+    private DimensionalSPIRouter dimensionalSPIRouter;
+
+    private String sayHello(String... dimensionValues) {
+        return DimensionalSPIRouter.where(SPIRouteContext.of(dimensionValues),
+                () -> dimensionService.sayHello(new BaseParam()));
+    }
+
+    @Test
+    void testMostSpecificMatch() {
+        assertEquals("acme", sayHello("tenant", "acme", "channel", "web", "region", "us"));
+        assertEquals("acmeApp", sayHello("tenant", "acme", "channel", "app", "region", "eu"));
+        assertEquals("eu", sayHello("tenant", "other", "channel", "app", "region", "eu"));
+        // 同样具体时，靠前的维度优先
+        assertEquals("acme", sayHello("tenant", "acme", "channel", "web", "region", "eu"));
+        // 都不匹配时路由到默认实现
+        assertEquals("default", sayHello("tenant", "other"));
+        assertEquals("default", dimensionService.sayHello(new BaseParam()));
+    }
+
+    @Test
+    void testNested() {
+        String result = DimensionalSPIRouter.where(SPIRouteContext.of("tenant", "acme"), () -> {
+            assertEquals("acme", DimensionalSPIRouter.current().get("tenant"));
+            // 内层合并外层上下文
+            String inner = sayHello("channel", "app");
+            assertEquals("acme", dimensionService.sayHello(new BaseParam()));
+            return inner;
+        });
+        assertEquals("acmeApp", result);
+        assertEquals(SPIRouteContext.EMPTY, DimensionalSPIRouter.current());
+    }
+
+    @Test
+    void testClear() {
+        SPIRouteContext outer = SPIRouteContext.of("tenant", "acme", "channel", "app");
+        // 内层清除的维度覆盖外层
+        SPIRouteContext merged = outer.merge(SPIRouteContext.EMPTY.with("channel", null));
+        assertNull(merged.get("channel"));
+        assertEquals("acme", merged.get("tenant"));
+        assertFalse(merged.toMap().containsKey("channel"));
+
+        String result = DimensionalSPIRouter.where(outer,
+                () -> DimensionalSPIRouter.where(SPIRouteContext.EMPTY.with("channel", null),
+                        () -> dimensionService.sayHello(new BaseParam())));
+        assertEquals("acme", result);
+    }
+
+    @Test
+    void testDimensionsRequired() throws NoSuchMethodException {
+        SPIMethodInvocation invocation = new SPIMethodInvocation(
+                TestSpelService.class.getMethod("sayHello", BaseParam.class), null, new Object[] { new BaseParam() });
+        assertThrows(IllegalStateException.class, () -> dimensionalSPIRouter.routePrefix(invocation));
+    }
+}
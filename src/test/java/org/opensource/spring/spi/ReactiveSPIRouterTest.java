@@ -0,0 +1,83 @@
+package org.opensource.spring.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+
+import org.opensource.spring.spi.reactive.LocalReactiveService;
+import org.opensource.spring.spi.reactive.ReactiveService;
+import org.opensource.spring.spi.router.ReactiveSPIUtil;
+import org.opensource.spring.spi.router.SPIUtil;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * 响应式路由测试
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SpringJUnitConfig(SPIConfig.class)
+public class ReactiveSPIRouterTest {
+
+    @Autowired
+    private ReactiveService reactiveService;
+
+    @Autowired
+    private LocalReactiveService localReactiveService;
+
+    @Test
+    void testMono() {
+        assertEquals("a: hello world!",
+                ReactiveSPIUtil.withPrefix("a", reactiveService.sayHello(new BaseParam())).block());
+
+        // 调用时不路由，订阅时按Context路由，跨线程同样生效
+        Mono<String> mono = reactiveService.sayHello(new BaseParam()).subscribeOn(Schedulers.parallel());
+        assertEquals("b: hello world!", ReactiveSPIUtil.withPrefix("b", mono).block());
+        assertEquals("a: hello world!", ReactiveSPIUtil.withPrefix("a", mono).block());
+    }
+
+    @Test
+    void testNested() {
+        Mono<String> result = ReactiveSPIUtil.withPrefix("a",
+                Mono.zip(ReactiveSPIUtil.withPrefix("b", reactiveService.sayHello(new BaseParam())),
+                        reactiveService.sayHello(new BaseParam()), (b, a) -> b + "," + a));
+        assertEquals("b: hello world!,a: hello world!", result.block());
+    }
+
+    @Test
+    void testFlux() {
+        assertEquals(Arrays.asList("b0", "b1", "b2"),
+                ReactiveSPIUtil.withPrefix("b", reactiveService.sayHellos(new BaseParam(), 3)).collectList()
+                        .block());
+    }
+
+    @Test
+    void testError() {
+        // 路由失败以错误信号返回
+        Mono<String> mono = reactiveService.sayHello(new BaseParam());
+        assertThrows(NoSuchBeanDefinitionException.class, () -> ReactiveSPIUtil.withPrefix("c", mono).block());
+    }
+
+    @Test
+    void testThreadLocalRouter() {
+        // 非响应式路由在调用时路由，订阅时prefix已经出栈
+        Mono<String> mono = SPIUtil.withPrefix("b", () -> localReactiveService.sayHello(new BaseParam()));
+        assertEquals("b: hello world!", mono.subscribeOn(Schedulers.parallel()).block());
+        assertEquals("a: hello world!",
+                SPIUtil.withPrefix("a", () -> localReactiveService.sayHello(new BaseParam())).block());
+    }
+
+    @Test
+    void testSync() {
+        assertEquals("b: hello world!",
+                SPIUtil.withPrefix("b", () -> reactiveService.sayHelloSync(new BaseParam())));
+    }
+}
@@ -0,0 +1,92 @@
+package org.opensource.spring.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.opensource.spring.spi.router.SPIUtil.withPrefix;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.opensource.spring.spi.async.AsyncService;
+import org.opensource.spring.spi.metrics.SPIMetricsRegistry;
+import org.opensource.spring.spi.metrics.SimpleSPIDispatchMetrics;
+import org.opensource.spring.spi.metrics.SimpleSPIMetricsRegistry;
+import org.opensource.spring.spi.router.SPIUtil;
+import org.opensource.spring.spi.router.ThreadLocalSPIRouter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+/**
+ * 异步调用测试
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SpringJUnitConfig({ SPIConfig.class, SPIAsyncTest.MetricsConfig.class })
+public class SPIAsyncTest {
+
+    @Configuration
+    static class MetricsConfig {
+        @Bean
+        public SPIMetricsRegistry spiMetricsRegistry() {
+            return new SimpleSPIMetricsRegistry();
+        }
+    }
+
+    @Autowired
+    private AsyncService asyncService;
+    @Autowired
+    private SimpleSPIMetricsRegistry registry;
+
+    @Test
+    void testFanOut() {
+        BaseParam param = new BaseParam();
+        CompletableFuture<String> a = withPrefix("a", () -> asyncService.sayHello(param));
+        CompletableFuture<String> b = withPrefix("b", () -> asyncService.sayHello(param));
+
+        assertEquals("a: a", a.join());
+        assertEquals("b: b", b.join());
+    }
+
+    @Test
+    void testStage() throws NoSuchMethodException {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        // 未注解@SPIAsync的方法，原样返回实现的future
+        assertSame(future, withPrefix("a", () -> asyncService.sayHelloWhen(future)));
+
+        // future完成时采集指标
+        Method method = AsyncService.class.getMethod("sayHelloWhen", CompletableFuture.class);
+        SimpleSPIDispatchMetrics a = registry.getMetrics(AsyncService.class, method, "a");
+        assertEquals(0, a.getCallCount());
+        future.complete("a");
+        assertEquals(1, a.getCallCount());
+        assertEquals(0, a.getErrorCount());
+    }
+
+    @Test
+    void testExecutor() throws InterruptedException {
+        BaseParam param = new BaseParam();
+        CountDownLatch latch = new CountDownLatch(1);
+        withPrefix("a", () -> asyncService.notify(param, latch));
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(param.getChannel().startsWith("a: spi-test-"), param.getChannel());
+    }
+
+    @Test
+    void testCaptured() {
+        Object captured = withPrefix("b", SPIUtil::capture);
+        String prefix = CompletableFuture
+                .supplyAsync(() -> SPIUtil.withCaptured(captured, ThreadLocalSPIRouter::peekPrefix)).join();
+
+        assertEquals("b", prefix);
+    }
+}
@@ -0,0 +1,62 @@
+package org.opensource.spring.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.opensource.spring.spi.batch.BatchService;
+import org.opensource.spring.spi.router.SPIBatchUtil;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+/**
+ * 批量调用测试
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SpringJUnitConfig(SPIConfig.class)
+public class SPIBatchTest {
+
+    @Autowired
+    private BatchService batchService;
+
+    private List<BaseParam> params(String... channels) {
+        List<BaseParam> params = new ArrayList<>();
+        for (String channel : channels) {
+            BaseParam param = new BaseParam();
+            param.setChannel(channel);
+            params.add(param);
+        }
+        return params;
+    }
+
+    @Test
+    void testBatch() {
+        AtomicInteger batchCount = new AtomicInteger();
+        List<String> results = SPIBatchUtil.batch(batchService, params("a", "b", "a", "b", "a"),
+                (service, param) -> service.sayHello(param), (service, group) -> {
+                    batchCount.incrementAndGet();
+                    return service.sayHelloBatch(group);
+                });
+
+        // 结果按原顺序返回，每个实现只调用一次批量方法
+        assertEquals(Arrays.asList("a: a", "b: b", "a: a", "b: b", "a: a"), results);
+        assertEquals(2, batchCount.get());
+    }
+
+    @Test
+    void testParallel() {
+        List<String> results = SPIBatchUtil.batch(batchService, params("b", "a", "b"),
+                (service, param) -> service.sayHello(param), (service, group) -> service.sayHelloBatch(group),
+                ForkJoinPool.commonPool());
+
+        assertEquals(Arrays.asList("b: b", "a: a", "b: b"), results);
+    }
+}
@@ -0,0 +1,76 @@
+package org.opensource.spring.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.opensource.spring.spi.router.SPIBroadcastException;
+import org.opensource.spring.spi.router.SPIBroadcastUtil;
+import org.opensource.spring.spi.router.ThreadLocalSPIRouter;
+import org.opensource.spring.spi.ttl.BTestServiceImpl;
+import org.opensource.spring.spi.ttl.TestService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+/**
+ * 广播调用测试
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SpringJUnitConfig(SPIConfig.class)
+public class SPIBroadcastTest {
+
+    @Autowired
+    private TestService testService;
+
+    @Test
+    void testBroadcast() {
+        BaseParam param = new BaseParam();
+        assertEquals(Arrays.asList("a: hello world!", "b: hello world!"),
+                SPIBroadcastUtil.broadcast(testService, service -> service.sayHello(param), Collectors.toList()));
+
+        // 实现中读取到自己的prefix
+        assertEquals("a,b", SPIBroadcastUtil.broadcast(testService, service -> ThreadLocalSPIRouter.peekPrefix(),
+                Collectors.joining(",")));
+
+        // 指定prefix
+        assertEquals(Collections.singletonList("b: hello world!"),
+                SPIBroadcastUtil.broadcast(testService, Collections.singleton("b"), service -> service.sayHello(param),
+                        Collectors.toList(), ForkJoinPool.commonPool(), null));
+    }
+
+    @Test
+    void testTimeout() throws InterruptedException {
+        BaseParam param = new BaseParam();
+        CountDownLatch interrupted = new CountDownLatch(1);
+        SPIBroadcastException e = assertThrows(SPIBroadcastException.class,
+                () -> SPIBroadcastUtil.broadcast(testService, service -> {
+                    if (service instanceof BTestServiceImpl) {
+                        try {
+                            Thread.sleep(10000);
+                        } catch (InterruptedException ie) {
+                            interrupted.countDown();
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    return service.sayHello(param);
+                }, Collectors.toList(), Duration.ofMillis(50)));
+
+        assertEquals(Collections.singleton("b"), e.getFailures().keySet());
+        assertTrue(e.getFailures().get("b") instanceof TimeoutException);
+        // 超时的调用被中断
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,95 @@
+package org.opensource.spring.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import static org.opensource.spring.spi.router.SPIUtil.withPrefix;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.opensource.spring.spi.async.AsyncService;
+import org.opensource.spring.spi.proxy.SPIProxyFactory;
+import org.opensource.spring.spi.proxy.SPIRejectedException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+/**
+ * 隔离舱测试
+ * 
+ * sayHelloWhen原样返回传入的future，测试控制future完成的时机，完成前一直占用并发额度
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SpringJUnitConfig(SPIConfig.class)
+@TestPropertySource(properties = { "spring.spi.bulkhead.AsyncService.a.max-concurrency=1",
+        "spring.spi.bulkhead.AsyncService.b.max-concurrency=1",
+        "spring.spi.bulkhead.AsyncService.b.max-wait-millis=5000" })
+public class SPIBulkheadTest {
+
+    @Autowired
+    private AsyncService asyncService;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void testReject() {
+        CompletableFuture<String> first = new CompletableFuture<>();
+        withPrefix("a", () -> asyncService.sayHelloWhen(first));
+        SPIRejectedException e = assertThrows(SPIRejectedException.class,
+                () -> withPrefix("a", () -> asyncService.sayHelloWhen(new CompletableFuture<>())));
+        assertEquals("a", e.getPrefix());
+
+        // 其他prefix不受影响
+        CompletableFuture<String> b = new CompletableFuture<>();
+        assertSame(b, withPrefix("b", () -> asyncService.sayHelloWhen(b)));
+        b.complete("b");
+
+        // 完成后释放额度
+        first.complete("a");
+        CompletableFuture<String> second = new CompletableFuture<>();
+        assertSame(second, withPrefix("a", () -> asyncService.sayHelloWhen(second)));
+        second.complete("a");
+    }
+
+    @Test
+    void testWait() {
+        CompletableFuture<String> first = new CompletableFuture<>();
+        withPrefix("b", () -> asyncService.sayHelloWhen(first));
+        // 等待前一个调用完成
+        CompletableFuture<String> second = new CompletableFuture<>();
+        CompletableFuture<CompletionStage<String>> waiting = CompletableFuture
+                .supplyAsync(() -> withPrefix("b", () -> asyncService.sayHelloWhen(second)));
+        assertFalse(waiting.isDone());
+
+        first.complete("b");
+        assertSame(second, waiting.join());
+        second.complete("b");
+    }
+
+    @Test
+    void testRefresh() {
+        SPIProxyFactory proxyFactory = applicationContext.getBean("&AsyncService#Proxy", SPIProxyFactory.class);
+        CompletableFuture<String> first = new CompletableFuture<>();
+        withPrefix("a", () -> asyncService.sayHelloWhen(first));
+
+        // 容器刷新、清空分发表后，正在执行的调用仍占用并发额度
+        applicationContext.publishEvent(new ContextRefreshedEvent(applicationContext));
+        proxyFactory.invalidate();
+        assertThrows(SPIRejectedException.class,
+                () -> withPrefix("a", () -> asyncService.sayHelloWhen(new CompletableFuture<>())));
+        assertEquals(0, proxyFactory.getBulkhead("a").getAvailable());
+
+        first.complete("a");
+        assertEquals(1, proxyFactory.getBulkhead("a").getAvailable());
+    }
+}
@@ -0,0 +1,101 @@
+package org.opensource.spring.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.opensource.spring.spi.router.SPIUtil.withPrefix;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.opensource.spring.spi.deadline.DeadlineService;
+import org.opensource.spring.spi.proxy.SPIBulkhead;
+import org.opensource.spring.spi.proxy.SPIProxyFactory;
+import org.opensource.spring.spi.proxy.SPIRejectedException;
+import org.opensource.spring.spi.proxy.SPITimeoutException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+/**
+ * 调用时限和对冲测试
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SpringJUnitConfig(SPIConfig.class)
+@TestPropertySource(properties = "spring.spi.bulkhead.DeadlineService.b.max-concurrency=1")
+public class SPIDeadlineTest {
+
+    @Autowired
+    private DeadlineService deadlineService;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void testDeadline() {
+        BaseParam param = new BaseParam();
+        // 线程池中保留调用时的prefix
+        assertEquals("a: a", withPrefix("a", () -> deadlineService.sayHello(param, 0)));
+
+        SPITimeoutException e = assertThrows(SPITimeoutException.class,
+                () -> withPrefix("a", () -> deadlineService.sayHello(param, 2000)));
+        assertEquals("a", e.getPrefix());
+
+        // 抛出原始异常
+        assertThrows(IllegalArgumentException.class, () -> withPrefix("a", () -> deadlineService.sayHello(param, -1)));
+    }
+
+    @Test
+    void testHedge() {
+        BaseParam param = new BaseParam();
+        assertEquals("a: a", withPrefix("a", () -> deadlineService.sayHelloHedged(param, 0)));
+        // 超过对冲延迟，对冲调用先返回
+        assertEquals("b: b", withPrefix("a", () -> deadlineService.sayHelloHedged(param, 1000)));
+    }
+
+    @Test
+    void testInterrupt() {
+        BaseParam param = new BaseParam();
+        // 等待时被中断，抛出运行时异常并保留中断标记
+        Thread.currentThread().interrupt();
+        SPITimeoutException e = assertThrows(SPITimeoutException.class,
+                () -> withPrefix("a", () -> deadlineService.sayHello(param, 1000)));
+        assertTrue(e.getCause() instanceof InterruptedException);
+        assertTrue(Thread.interrupted());
+
+        // 对冲延迟内被中断
+        Thread.currentThread().interrupt();
+        e = assertThrows(SPITimeoutException.class,
+                () -> withPrefix("a", () -> deadlineService.sayHelloHedged(param, 1000)));
+        assertTrue(e.getCause() instanceof InterruptedException);
+        assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    void testBulkhead() throws Exception {
+        BaseParam param = new BaseParam();
+        CountDownLatch latch = new CountDownLatch(1);
+        assertThrows(SPITimeoutException.class, () -> withPrefix("b", () -> deadlineService.sayHelloAfter(latch)));
+        // 超时后工作线程仍在执行，继续占用并发额度
+        assertThrows(SPIRejectedException.class, () -> withPrefix("b", () -> deadlineService.sayHelloAfter(latch)));
+        // 对冲实现没有并发额度时不对冲，等待路由到的实现
+        assertEquals("a: a", withPrefix("a", () -> deadlineService.sayHelloHedged(param, 200)));
+
+        // 工作线程结束后释放
+        latch.countDown();
+        SPIProxyFactory proxyFactory = applicationContext.getBean("&DeadlineService#Proxy", SPIProxyFactory.class);
+        SPIBulkhead bulkhead = proxyFactory.getBulkhead("b");
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkhead.getAvailable() == 0 && System.nanoTime() < end) {
+            Thread.sleep(1);
+        }
+        assertEquals(1, bulkhead.getAvailable());
+        assertEquals("b: b", withPrefix("b", () -> deadlineService.sayHelloAfter(latch)));
+    }
+}
@@ -0,0 +1,51 @@
+package org.opensource.spring.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import static org.opensource.spring.spi.router.SPIUtil.withPrefix;
+
+import java.lang.reflect.Method;
+
+import org.opensource.spring.spi.fallback.FallbackService;
+import org.opensource.spring.spi.proxy.SPIDispatchTable;
+import org.opensource.spring.spi.proxy.SPIProxyFactory;
+import org.opensource.spring.spi.proxy.SPIProxyRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+/**
+ * 降级路由测试
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SpringJUnitConfig(SPIConfig.class)
+public class SPIFallbackTest {
+
+    @Autowired
+    private FallbackService fallbackService;
+    @Autowired
+    private SPIProxyRegistry spiProxyRegistry;
+
+    @Test
+    void testFallback() throws NoSuchMethodException {
+        BaseParam param = new BaseParam();
+        assertEquals("us: hello world!", withPrefix("us", () -> fallbackService.sayHello(param)));
+        assertEquals("cn: hello world!", withPrefix("cn", () -> fallbackService.sayHello(param)));
+        // 没有实现的prefix按顺序降级
+        assertEquals("cn: hello world!", withPrefix("jp", () -> fallbackService.sayHello(param)));
+        assertEquals("default: hello world!", withPrefix("", () -> fallbackService.sayHello(param)));
+
+        // 降级结果按原prefix缓存
+        Method method = FallbackService.class.getMethod("sayHello", BaseParam.class);
+        for (SPIProxyFactory proxyFactory : spiProxyRegistry.getProxyFactories()) {
+            if (proxyFactory.getServiceInterface() == FallbackService.class) {
+                SPIDispatchTable table = proxyFactory.getDispatchTable();
+                assertSame(table.resolve(method, "cn"), table.resolve(method, "jp"));
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.opensource.spring.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.opensource.spring.spi.metrics.SPIDispatchEvent;
+import org.opensource.spring.spi.metrics.SPIFlightRecorder;
+import org.opensource.spring.spi.router.SPIUtil;
+import org.opensource.spring.spi.router.ThreadLocalSPIRouter;
+import org.opensource.spring.spi.ttl.TestService;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+/**
+ * JFR分发事件测试
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SpringJUnitConfig(SPIConfig.class)
+public class SPIFlightRecorderTest {
+
+    @Autowired
+    private TestService testService;
+
+    @TempDir
+    Path tempDir;
+
+    private List<RecordedEvent> record(Duration threshold, Runnable runnable) throws IOException {
+        Path file = tempDir.resolve("spi-" + System.nanoTime() + ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(SPIDispatchEvent.NAME).withThreshold(threshold);
+            recording.start();
+            runnable.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals(SPIDispatchEvent.NAME))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void testDispatchEvent() throws IOException {
+        assertTrue(SPIFlightRecorder.isAvailable());
+        int[] depth = new int[1];
+        List<RecordedEvent> events = record(Duration.ZERO, () -> SPIUtil.withPrefix("a", () -> {
+            SPIUtil.withPrefix("b", () -> {
+                depth[0] = ThreadLocalSPIRouter.depth();
+                return testService.sayHello(new BaseParam());
+            });
+            assertThrows(RuntimeException.class,
+                    () -> SPIUtil.withPrefix("missing", () -> testService.sayHello(new BaseParam())));
+            return null;
+        }));
+
+        assertEquals(2, events.size());
+        RecordedEvent success = events.get(0);
+        assertEquals(TestService.class.getName(), success.getClass("serviceInterface").getName());
+        assertEquals("sayHello", success.getString("method"));
+        assertEquals("b", success.getString("prefix"));
+        assertEquals("bTestService", success.getString("beanName"));
+        assertEquals(ThreadLocalSPIRouter.class.getName(), success.getClass("router").getName());
+        assertEquals(depth[0], success.getInt("stackDepth"));
+
+        // 路由解析失败也会记录
+        RecordedEvent failure = events.get(1);
+        assertNotNull(failure.getClass("exception"));
+        assertNull(failure.getString("beanName"));
+    }
+
+    @Test
+    void testThreshold() throws IOException {
+        // 默认阈值下，快速的分发不记录
+        List<RecordedEvent> events = record(Duration.ofMillis(20),
+                () -> SPIUtil.withPrefix("a", () -> testService.sayHello(new BaseParam())));
+        assertTrue(events.isEmpty());
+    }
+}
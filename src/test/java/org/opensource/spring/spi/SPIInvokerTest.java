@@ -0,0 +1,60 @@
+package org.opensource.spring.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import org.opensource.spring.spi.proxy.BytecodeSPIInvokerGenerator;
+import org.opensource.spring.spi.proxy.SPIInvoker;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 字节码调用器测试
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public class SPIInvokerTest {
+
+    public static class Calculator {
+        public int add(int a, long b) {
+            return (int) (a + b);
+        }
+
+        public void check(String value) throws IOException {
+            throw new IOException(value);
+        }
+    }
+
+    @Test
+    void testPrimitive() throws Throwable {
+        Method method = Calculator.class.getMethod("add", int.class, long.class);
+        SPIInvoker invoker = BytecodeSPIInvokerGenerator.generate(Calculator.class, method);
+        assertNotNull(invoker);
+        assertEquals(3, invoker.invoke(new Calculator(), new Object[] { 1, 2L }));
+        // 同一个(实现类, 方法)只生成一次
+        assertSame(invoker, BytecodeSPIInvokerGenerator.generate(Calculator.class, method));
+    }
+
+    @Test
+    void testOriginalException() throws Throwable {
+        Method method = Calculator.class.getMethod("check", String.class);
+        SPIInvoker invoker = BytecodeSPIInvokerGenerator.generate(Calculator.class, method);
+        assertNotNull(invoker);
+        IOException e = assertThrows(IOException.class, () -> invoker.invoke(new Calculator(), new Object[] { "x" }));
+        assertEquals("x", e.getMessage());
+    }
+
+    @Test
+    void testInaccessible() throws Throwable {
+        // 系统类加载器加载的类不生成
+        Method method = String.class.getMethod("length");
+        assertNull(BytecodeSPIInvokerGenerator.generate(String.class, method));
+    }
+}
@@ -0,0 +1,69 @@
+package org.opensource.spring.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.opensource.spring.spi.router.SPIUtil.withPrefix;
+
+import java.lang.reflect.Method;
+
+import org.opensource.spring.spi.metrics.SPIMetricsRegistry;
+import org.opensource.spring.spi.metrics.SimpleSPIDispatchMetrics;
+import org.opensource.spring.spi.metrics.SimpleSPIMetricsRegistry;
+import org.opensource.spring.spi.ttl.TestService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+/**
+ * 分发指标测试
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SpringJUnitConfig({ SPIConfig.class, SPIMetricsTest.MetricsConfig.class })
+public class SPIMetricsTest {
+
+    @Configuration
+    static class MetricsConfig {
+        @Bean
+        public SPIMetricsRegistry spiMetricsRegistry() {
+            return new SimpleSPIMetricsRegistry();
+        }
+    }
+
+    @Autowired
+    private TestService testService;
+    @Autowired
+    private SimpleSPIMetricsRegistry registry;
+
+    @Test
+    void testMetrics() throws NoSuchMethodException {
+        BaseParam param = new BaseParam();
+        for (int i = 0; i < 3; i++) {
+            withPrefix("a", () -> testService.sayHello(param));
+        }
+        assertThrows(NoSuchBeanDefinitionException.class, () -> withPrefix("x", () -> testService.sayHello(param)));
+        assertThrows(NoSuchBeanDefinitionException.class, () -> withPrefix("y", () -> testService.sayHello(param)));
+
+        Method method = TestService.class.getMethod("sayHello", BaseParam.class);
+        SimpleSPIDispatchMetrics a = registry.getMetrics(TestService.class, method, "a");
+        assertEquals(3, a.getCallCount());
+        assertEquals(3, a.getRouteCount());
+        assertEquals(0, a.getErrorCount());
+        assertTrue(a.getLatencyQuantile(0.99) > 0);
+
+        // 未命中记录在同一个指标下，不按原始prefix创建指标
+        SimpleSPIDispatchMetrics miss = registry.getMetrics(TestService.class, method,
+                SPIMetricsRegistry.ROUTE_MISS_PREFIX);
+        assertEquals(2, miss.getRouteMissCount());
+        assertEquals(0, miss.getCallCount());
+        assertFalse(registry.getMetrics().keySet().stream().anyMatch(key -> "x".equals(key.getPrefix())));
+    }
+}
@@ -0,0 +1,67 @@
+package org.opensource.spring.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+
+import org.opensource.spring.spi.proxy.SPIDispatchTable;
+import org.opensource.spring.spi.annotation.SPIInvokerType;
+import org.opensource.spring.spi.proxy.SPIMethodInvocation;
+import org.opensource.spring.spi.proxy.SPIProxyFactory;
+import org.opensource.spring.spi.router.IndexedSPIRouter;
+import org.opensource.spring.spi.router.SPIPrefix;
+import org.opensource.spring.spi.spel.TestSpelService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+/**
+ * 驻留prefix分发测试
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SpringJUnitConfig(SPIConfig.class)
+public class SPIPrefixTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void testIntern() {
+        SPIPrefix a = SPIPrefix.of("a");
+        assertSame(a, SPIPrefix.of(new String("a")));
+        assertNotEquals(a.getId(), SPIPrefix.of("b").getId());
+        assertEquals("", SPIPrefix.DEFAULT.getValue());
+        assertTrue(SPIPrefix.count() > a.getId());
+    }
+
+    @Test
+    void testIndexedDispatch() throws Throwable {
+        SPIProxyFactory proxyFactory = new SPIProxyFactory();
+        proxyFactory.setApplicationContext(applicationContext);
+        proxyFactory.setServiceInterface(TestSpelService.class);
+        proxyFactory.setInvokerType(SPIInvokerType.REFLECTION);
+        SPIPrefix b = SPIPrefix.of("b");
+        proxyFactory.setSpiRouter((IndexedSPIRouter) invocation -> b);
+
+        Method method = TestSpelService.class.getMethod("sayHello", BaseParam.class);
+        Object[] args = new Object[] { new BaseParam() };
+        assertEquals("b: hello world!", proxyFactory.invoke(new SPIMethodInvocation(method, null, args)));
+        assertEquals("b: hello world!", proxyFactory.invoke(new SPIMethodInvocation(method, null, args)));
+
+        // 驻留prefix和字符串prefix解析到同一个缓存的分发目标
+        SPIDispatchTable table = proxyFactory.getDispatchTable();
+        assertTrue(table.isCached(method, "b"));
+        assertSame(table.resolve(method, "b"), table.resolve(method, b));
+
+        // 清空后重新解析
+        proxyFactory.invalidate();
+        assertEquals("bTestSpelService", proxyFactory.getDispatchTable().resolve(method, b).getBeanName());
+    }
+}
@@ -0,0 +1,70 @@
+package org.opensource.spring.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.opensource.spring.spi.router.SPIUtil.withPrefix;
+
+import java.io.IOException;
+
+import org.opensource.spring.spi.generated.GeneratedService;
+import org.opensource.spring.spi.proxy.SPIProxy;
+import org.opensource.spring.spi.router.ThreadLocalSPIRouter;
+import org.opensource.spring.spi.ttl.TestService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+/**
+ * 编译期生成的静态代理测试
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SpringJUnitConfig(SPIConfig.class)
+public class SPIProxyProcessorTest {
+
+    /**
+     * 代理按原始类型注册，这里使用原始类型注入
+     */
+    @Autowired
+    @SuppressWarnings("rawtypes")
+    private GeneratedService service;
+
+    @Autowired
+    private TestService testService;
+
+    @Test
+    void testGeneratedProxy() {
+        assertTrue(service instanceof SPIProxy);
+
+        assertEquals(5, (int) withPrefix("a", () -> service.length("hello")));
+        assertEquals(3, withPrefix("a", () -> service.wrap(1, "x", "y").size()));
+        // default方法同样路由到实现
+        assertEquals("a", withPrefix("a", () -> service.name()));
+    }
+
+    @Test
+    void testPackages() {
+        // 只为spi.proxy.packages指定的包生成，其他接口仍然使用JDK动态代理
+        assertTrue(AopUtils.isJdkDynamicProxy(testService));
+        assertFalse(testService instanceof SPIProxy);
+        assertEquals("a: hello world!", withPrefix("a", () -> testService.sayHello(new BaseParam())));
+    }
+
+    @Test
+    void testCheckedException() {
+        ThreadLocalSPIRouter.pushPrefix("a");
+        try {
+            // 受检异常原样抛出
+            IOException e = assertThrows(IOException.class, () -> service.check("x"));
+            assertEquals("x", e.getMessage());
+        } finally {
+            ThreadLocalSPIRouter.popPrefix();
+        }
+    }
+}
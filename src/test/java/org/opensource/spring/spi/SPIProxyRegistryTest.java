@@ -0,0 +1,80 @@
+package org.opensource.spring.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.opensource.spring.spi.proxy.SPIProxyFactory;
+import org.opensource.spring.spi.proxy.SPIProxyRegistry;
+import org.opensource.spring.spi.reactive.ReactiveService;
+import org.opensource.spring.spi.ttl.TestService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+/**
+ * 启动实现查找和校验测试
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SpringJUnitConfig(SPIConfig.class)
+public class SPIProxyRegistryTest {
+
+    @Autowired
+    private SPIProxyRegistry spiProxyRegistry;
+
+    @Test
+    void testImplementations() throws NoSuchMethodException {
+        Map<String, String> expected = new TreeMap<>();
+        expected.put("a", "aTestService");
+        expected.put("b", "bTestService");
+        assertEquals(expected, spiProxyRegistry.getImplementations(TestService.class));
+
+        // 启动后分发表已预热
+        Method method = TestService.class.getMethod("sayHello", BaseParam.class);
+        for (SPIProxyFactory proxyFactory : spiProxyRegistry.getProxyFactories()) {
+            if (proxyFactory.getServiceInterface() == TestService.class) {
+                assertTrue(proxyFactory.getDispatchTable().isCached(method, "a"));
+                assertTrue(proxyFactory.getDispatchTable().isCached(method, "b"));
+            }
+        }
+    }
+
+    @Test
+    void testFailFastClean() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test",
+                Collections.singletonMap(SPIProxyRegistry.FAIL_FAST_PROPERTY, "true")));
+        context.register(SPIConfig.class);
+        // aLocalReactiveService以ReactiveService结尾，但它是另一个SPI接口的实现，不算校验问题
+        context.refresh();
+        try {
+            assertTrue(context.getBean(SPIProxyRegistry.class).getImplementations(ReactiveService.class)
+                    .containsKey("a"));
+        } finally {
+            context.close();
+        }
+    }
+
+    @Test
+    void testFailFast() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test",
+                Collections.singletonMap(SPIProxyRegistry.FAIL_FAST_PROPERTY, "true")));
+        context.register(SPIConfig.class);
+        // 按命名规则会路由到，但不是TestService的实现
+        context.registerBean("cTestService", String.class, () -> "c");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, context::refresh);
+        assertTrue(e.getMessage().contains("cTestService"), e.getMessage());
+    }
+}
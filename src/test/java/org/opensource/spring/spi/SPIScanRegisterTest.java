@@ -0,0 +1,89 @@
+package org.opensource.spring.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.opensource.spring.spi.annotation.SPIScan;
+import org.opensource.spring.spi.proxy.SPIProxyFactory;
+import org.opensource.spring.spi.proxy.SPIProxyRegistry;
+import org.opensource.spring.spi.router.SPIRouter;
+import org.opensource.spring.spi.router.SPIUtil;
+import org.opensource.spring.spi.ttl.TestService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+
+/**
+ * 代理工厂注册测试
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public class SPIScanRegisterTest {
+
+    /**
+     * 记录经过后处理的路由器
+     */
+    static class RouterPostProcessor implements BeanPostProcessor {
+        final Set<String> routers = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof SPIRouter) {
+                routers.add(beanName);
+            }
+            return bean;
+        }
+    }
+
+    /**
+     * 延迟初始化代理工厂，只扫描ttl包
+     */
+    @ComponentScan(basePackages = { "org.opensource.spring.spi.router", "org.opensource.spring.spi.proxy",
+            "org.opensource.spring.spi.ttl" })
+    @SPIScan(basePackages = "org.opensource.spring.spi.ttl", lazyInit = true)
+    static class LazyConfig {
+    }
+
+    @Test
+    void testFactoryBeanDefinition() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.register(SPIConfig.class);
+            context.registerBean(RouterPostProcessor.class);
+            context.refresh();
+
+            BeanDefinition definition = context.getBeanDefinition("TestService#Proxy");
+            assertEquals(SPIProxyFactory.class.getName(), definition.getBeanClassName());
+            assertEquals(TestService.class, definition.getAttribute(FactoryBean.OBJECT_TYPE_ATTRIBUTE));
+            assertTrue(definition.isPrimary());
+            // 路由器在注册阶段之后创建，经过了完整的后处理
+            assertTrue(context.getBean(RouterPostProcessor.class).routers.contains("threadLocalSPIRouter"));
+            assertTrue(context.getBean(RouterPostProcessor.class).routers.contains("spelSPIRouter"));
+        }
+    }
+
+    @Test
+    void testLazyInit() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+                LazyConfig.class)) {
+            SPIProxyRegistry registry = context.getBean(SPIProxyRegistry.class);
+            assertTrue(context.getBeanDefinition("TestService#Proxy").isLazyInit());
+            assertFalse(context.getBeanFactory().containsSingleton("TestService#Proxy"));
+            assertTrue(registry.getProxyFactories().isEmpty());
+
+            // 第一次使用时创建，并查找实现、预热分发表
+            TestService testService = context.getBean(TestService.class);
+            assertEquals("a: hello world!", SPIUtil.withPrefix("a", () -> testService.sayHello(new BaseParam())));
+            assertEquals(1, registry.getProxyFactories().size());
+            assertEquals(2, registry.getImplementations(TestService.class).size());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.opensource.spring.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.DefaultResourceLoader;
+
+/**
+ * SPI接口扫描测试
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public class SPIScanTest {
+
+    private SPIScanRegister register() {
+        SPIScanRegister register = new SPIScanRegister();
+        register.setEnvironment(new StandardEnvironment());
+        register.setResourceLoader(new DefaultResourceLoader());
+        register.setBeanClassLoader(getClass().getClassLoader());
+        return register;
+    }
+
+    private List<String> scan(String... basePackages) {
+        return scan(register(), false, basePackages);
+    }
+
+    private List<String> scan(SPIScanRegister register, boolean useIndex, String... basePackages) {
+        List<String> classNames = new ArrayList<>();
+        for (BeanDefinition candidate : register.scanCandidates(new LinkedHashSet<>(Arrays.asList(basePackages)),
+                useIndex)) {
+            classNames.add(candidate.getBeanClassName());
+        }
+        return classNames;
+    }
+
+    @Test
+    void testParallelScan() {
+        List<String> all = scan("org.opensource.spring.spi");
+        // 并行扫描重叠的路径，结果去重且顺序稳定
+        assertEquals(all, scan("org.opensource.spring.spi.ttl", "org.opensource.spring.spi.spel",
+                "org.opensource.spring.spi.generated", "org.opensource.spring.spi"));
+        assertEquals(Arrays.asList("org.opensource.spring.spi.spel.TestSpelService",
+                "org.opensource.spring.spi.ttl.TestService"),
+                scan("org.opensource.spring.spi.ttl", "org.opensource.spring.spi.spel"));
+    }
+
+    @Test
+    void testIndex() {
+        AtomicInteger scanned = new AtomicInteger();
+        SPIScanRegister register = new SPIScanRegister() {
+            @Override
+            protected ClassPathScanningCandidateComponentProvider getScanner() {
+                scanned.incrementAndGet();
+                return super.getScanner();
+            }
+        };
+        register.setEnvironment(new StandardEnvironment());
+        register.setResourceLoader(new DefaultResourceLoader());
+        register.setBeanClassLoader(getClass().getClassLoader());
+
+        // 测试编译时SPIProxyProcessor生成了索引，结果与扫描类路径一致，且不遍历类路径
+        assertEquals(scan("org.opensource.spring.spi"), scan(register, true, "org.opensource.spring.spi"));
+        assertEquals(scan("org.opensource.spring.*.ttl"), scan(register, true, "org.opensource.spring.*.ttl"));
+        assertEquals(0, scanned.get());
+
+        // 索引中没有接口的路径仍然扫描类路径
+        assertTrue(scan(register, true, "org.opensource.spring.spi.router").isEmpty());
+        assertEquals(1, scanned.get());
+    }
+}
@@ -0,0 +1,71 @@
+package org.opensource.spring.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.opensource.spring.spi.router.ScopedSPIRouter;
+import org.opensource.spring.spi.scoped.ScopedService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+/**
+ * 作用域路由测试
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SpringJUnitConfig(SPIConfig.class)
+public class ScopedSPIRouterTest {
+
+    @Autowired
+    private ScopedService scopedService;
+
+    @Test
+    void testNested() {
+        BaseParam param = new BaseParam();
+        ScopedSPIRouter.run("a", () -> {
+            assertEquals("a: hello world!", scopedService.sayHello(param));
+            // 嵌套作用域退出后恢复外层
+            assertEquals("b: hello world!", ScopedSPIRouter.where("b", () -> scopedService.sayHello(param)));
+            assertEquals(1, ScopedSPIRouter.depth());
+            assertEquals("a: hello world!", scopedService.sayHello(param));
+        });
+        assertEquals("", ScopedSPIRouter.current());
+        assertEquals(0, ScopedSPIRouter.depth());
+    }
+
+    @Test
+    void testWrap() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // 不会自动传递给线程池
+            assertEquals("", ScopedSPIRouter.where("a",
+                    () -> CompletableFuture.supplyAsync(ScopedSPIRouter::current, executor).join()));
+            // 显式继承提交时的作用域
+            assertEquals("b", ScopedSPIRouter.where("b", () -> CompletableFuture
+                    .supplyAsync(ScopedSPIRouter::current, ScopedSPIRouter.wrap(executor)).join()));
+            assertEquals("a", ScopedSPIRouter.call("a",
+                    () -> executor.submit(ScopedSPIRouter.wrap(ScopedSPIRouter::current)).get()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testCall() {
+        // 受检异常原样抛出，退出后恢复外层
+        IOException e = assertThrows(IOException.class, () -> ScopedSPIRouter.call("a", () -> {
+            assertEquals("a", ScopedSPIRouter.current());
+            throw new IOException("a");
+        }));
+        assertEquals("a", e.getMessage());
+        assertEquals(0, ScopedSPIRouter.depth());
+    }
+}
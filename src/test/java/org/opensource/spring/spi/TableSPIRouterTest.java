@@ -0,0 +1,104 @@
+package org.opensource.spring.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.opensource.spring.spi.proxy.SPIMethodInvocation;
+import org.opensource.spring.spi.router.TableSPIRouter;
+import org.opensource.spring.spi.router.WeightedPrefixSelector;
+import org.opensource.spring.spi.spel.TestSpelService;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+/**
+ * 路由表路由测试
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public class TableSPIRouterTest {
+
+    private MethodInvocation invocation(String channel) throws NoSuchMethodException {
+        BaseParam param = new BaseParam();
+        param.setChannel(channel);
+        return new SPIMethodInvocation(TestSpelService.class.getMethod("sayHello", BaseParam.class), null,
+                new Object[] { param });
+    }
+
+    @Test
+    void testRules() throws NoSuchMethodException {
+        TableSPIRouter router = new TableSPIRouter();
+        router.setRules("# 注释\nvip = a\ntenant-* = b\nsplit = a:0,b:100\n");
+
+        assertEquals("a", router.route(invocation("vip")));
+        assertEquals("b", router.route(invocation("tenant-1")));
+        assertEquals("b", router.route(invocation("split")));
+        // 没有匹配时使用key
+        assertEquals("c", router.route(invocation("c")));
+
+        router.setRules("* = a:50,b:50");
+        // 同一key总是分到同一prefix
+        String sticky = router.route(invocation("any"));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(sticky, router.route(invocation("any")));
+        }
+        // 不同key按比例分流
+        Set<String> prefixes = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            prefixes.add(router.route(invocation("key-" + i)));
+        }
+        assertEquals(2, prefixes.size());
+
+        assertThrows(IllegalArgumentException.class, () -> router.setRules("vip"));
+        assertThrows(IllegalArgumentException.class, () -> router.setRules("vip = a:x"));
+    }
+
+    @Test
+    void testSelector() {
+        WeightedPrefixSelector selector = WeightedPrefixSelector.parse("a:90,b:0,c:10");
+        assertEquals(100, selector.getTotalWeight());
+        assertEquals("a", selector.select(0));
+        assertEquals("a", selector.select(89));
+        assertEquals("c", selector.select(90));
+        assertEquals("c", selector.select(99));
+    }
+
+    @Test
+    void testReload(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("spi-routes.conf");
+        Files.write(file, "vip = a\n".getBytes(StandardCharsets.UTF_8));
+
+        TableSPIRouter router = new TableSPIRouter();
+        router.setEnvironment(new MockEnvironment().withProperty(TableSPIRouter.FILE_PROPERTY, file.toString()));
+        router.afterPropertiesSet();
+        try {
+            assertEquals("a", router.route(invocation("vip")));
+
+            // 修改文件后自动重新加载
+            Files.write(file, "vip = b\n".getBytes(StandardCharsets.UTF_8));
+            long deadline = System.currentTimeMillis() + 30000;
+            while (!"b".equals(router.route(invocation("vip"))) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals("b", router.route(invocation("vip")));
+
+            // 格式错误时保留原路由表
+            Files.write(file, "vip\n".getBytes(StandardCharsets.UTF_8));
+            Thread.sleep(200);
+            assertEquals("b", router.route(invocation("vip")));
+            assertTrue(Files.exists(router.getFile()));
+        } finally {
+            router.destroy();
+        }
+    }
+}
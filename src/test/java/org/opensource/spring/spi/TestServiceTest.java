@@ -1,8 +1,14 @@
 package org.opensource.spring.spi;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 import static org.opensource.spring.spi.router.SPIUtil.withPrefix;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.opensource.spring.spi.proxy.SPIProxyRegistry;
+import org.opensource.spring.spi.router.SPIRouteTracer;
 import org.opensource.spring.spi.router.ThreadLocalSPIRouter;
 import org.opensource.spring.spi.ttl.TestService;
 
@@ -27,6 +33,8 @@ public class TestServiceTest {
      */
     @Autowired
     private TestService testService;
+    @Autowired
+    private SPIProxyRegistry spiProxyRegistry;
 
     /**
      * 压栈出栈测试
@@ -70,4 +78,72 @@ public class TestServiceTest {
 
         log.debug("spiUtil单测结束");
     }
+
+    /**
+     * 分发表缓存清空后重新解析
+     */
+    @Test
+    void testDispatchCacheInvalidate() {
+        BaseParam param = new BaseParam();
+        assertFalse(spiProxyRegistry.getProxyFactories().isEmpty());
+
+        assertEquals("a: hello world!", withPrefix("a", () -> testService.sayHello(param)));
+        spiProxyRegistry.invalidate();
+        assertEquals("a: hello world!", withPrefix("a", () -> testService.sayHello(param)));
+        assertEquals("b: hello world!", withPrefix("b", () -> testService.sayHello(param)));
+    }
+
+    /**
+     * 嵌套路由，子线程继承父线程当时的栈顶
+     */
+    @Test
+    void testNestedPrefix() throws InterruptedException {
+        BaseParam param = new BaseParam();
+        String[] child = new String[1];
+        String origin = ThreadLocalSPIRouter.peekPrefix();
+
+        String response = withPrefix("a", () -> {
+            String inner = withPrefix("b", () -> {
+                Thread t = new Thread(() -> child[0] = testService.sayHello(param));
+                t.start();
+                try {
+                    t.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return testService.sayHello(param);
+            });
+            assertEquals("b: hello world!", inner);
+            // 内层出栈后恢复外层prefix
+            return testService.sayHello(param);
+        });
+        assertEquals("a: hello world!", response);
+        assertEquals("b: hello world!", child[0]);
+        assertEquals(origin, ThreadLocalSPIRouter.peekPrefix());
+    }
+
+    /**
+     * 路由栈追踪
+     */
+    @Test
+    void testTracer() {
+        List<String> traces = new ArrayList<>();
+        ThreadLocalSPIRouter.setTracer(new SPIRouteTracer() {
+            @Override
+            public void onPush(String prefix, int depth) {
+                traces.add("push:" + prefix);
+            }
+
+            @Override
+            public void onPop(String prefix, int depth) {
+                traces.add("pop:" + prefix);
+            }
+        });
+        try {
+            withPrefix("a", () -> withPrefix("b", () -> testService.sayHello(new BaseParam())));
+        } finally {
+            ThreadLocalSPIRouter.setTracer(null);
+        }
+        assertEquals("[push:a, push:b, pop:b, pop:a]", traces.toString());
+    }
 }
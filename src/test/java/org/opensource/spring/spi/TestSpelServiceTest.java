@@ -1,14 +1,20 @@
 package org.opensource.spring.spi;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.lang.reflect.Method;
+
+import org.opensource.spring.spi.router.SpelSPIRouter;
 import org.opensource.spring.spi.spel.TestSpelService;
 
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.ReflectionTestUtils;
 
 /**
  * 测试入口，测试spel路由实现
@@ -22,6 +28,8 @@ public class TestSpelServiceTest {
      */
     @Autowired
     private TestSpelService service;
+    @Autowired
+    private SpelSPIRouter spelSPIRouter;
 
     @Test
     void testSayHello() {
@@ -46,4 +54,36 @@ public class TestSpelServiceTest {
         log.info("测试结束");
     }
 
+    /**
+     * 多次调用后spel表达式编译执行
+     */
+    @Test
+    void testCompiledRoute() throws NoSuchMethodException {
+        BaseParam param = new BaseParam();
+        for (int i = 0; i < 300; i++) {
+            String channel = i % 2 == 0 ? "a" : "b";
+            param.setChannel(channel);
+            assertEquals(channel + ": hello world!", service.sayHello(param));
+        }
+        assertTrue(isCompiled(TestSpelService.class.getMethod("sayHello", BaseParam.class)));
+    }
+
+    /**
+     * {@link org.opensource.spring.spi.annotation.ElParam#compilerMode()}指定立即编译
+     */
+    @Test
+    void testCompilerMode() throws NoSuchMethodException {
+        BaseParam param = new BaseParam();
+        param.setChannel("b");
+        // 第一次解释执行收集类型信息，之后立即编译
+        assertEquals("b: hello world!", service.sayHelloCompiled(param));
+        assertEquals("b: hello world!", service.sayHelloCompiled(param));
+        assertTrue(isCompiled(TestSpelService.class.getMethod("sayHelloCompiled", BaseParam.class)));
+    }
+
+    private boolean isCompiled(Method method) {
+        SpelExpression expression = (SpelExpression) spelSPIRouter.getExpression(method);
+        return ReflectionTestUtils.getField(expression, "compiledAst") != null;
+    }
+
 }
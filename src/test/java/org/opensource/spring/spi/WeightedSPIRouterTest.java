@@ -0,0 +1,83 @@
+package org.opensource.spring.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.opensource.spring.spi.proxy.SPIMethodInvocation;
+import org.opensource.spring.spi.router.WeightedSPIRouter;
+import org.opensource.spring.spi.spel.TestSpelService;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+/**
+ * 权重分流路由测试
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+public class WeightedSPIRouterTest {
+
+    private MethodInvocation invocation(String channel) throws NoSuchMethodException {
+        BaseParam param = new BaseParam();
+        param.setChannel(channel);
+        return new SPIMethodInvocation(TestSpelService.class.getMethod("sayHello", BaseParam.class), null,
+                new Object[] { param });
+    }
+
+    @Test
+    void testStableAndWeighted() throws NoSuchMethodException {
+        WeightedSPIRouter router = new WeightedSPIRouter();
+        router.setEnvironment(new MockEnvironment().withProperty(
+                WeightedSPIRouter.WEIGHTS_PROPERTY_PREFIX + "TestSpelService", "v1:95,v2:5"));
+
+        int v2 = 0;
+        for (int i = 0; i < 10000; i++) {
+            String prefix = router.route(invocation("customer-" + i));
+            // 同一个key总是路由到同一个prefix
+            assertEquals(prefix, router.route(invocation("customer-" + i)));
+            if ("v2".equals(prefix)) {
+                v2++;
+            }
+        }
+        assertTrue(v2 > 300 && v2 < 700, "v2 count " + v2);
+
+        Map<String, Long> counts = router.getCounts(TestSpelService.class);
+        assertEquals(2L * v2, counts.get("v2"));
+        assertEquals(20000L - 2L * v2, counts.get("v1"));
+    }
+
+    @Test
+    void testRampUp() throws NoSuchMethodException {
+        WeightedSPIRouter router = new WeightedSPIRouter();
+        router.setWeights(TestSpelService.class, "v1:95,v2:5");
+        String[] before = new String[2000];
+        for (int i = 0; i < before.length; i++) {
+            before[i] = router.route(invocation("customer-" + i));
+        }
+
+        // 调大v2权重，原来在v2的key不变，计数重新开始
+        router.setWeights(TestSpelService.class, "v1:50,v2:50");
+        long routed = 0;
+        for (int i = 0; i < before.length; i++) {
+            if ("v2".equals(before[i])) {
+                assertEquals("v2", router.route(invocation("customer-" + i)));
+                routed++;
+            }
+        }
+        assertTrue(routed > 0);
+        assertEquals(routed, router.getCounts(TestSpelService.class).get("v2"));
+    }
+
+    @Test
+    void testNotConfigured() {
+        WeightedSPIRouter router = new WeightedSPIRouter();
+        router.setEnvironment(new MockEnvironment());
+        assertThrows(IllegalStateException.class, () -> router.route(invocation("customer")));
+        assertTrue(router.getCounts(TestSpelService.class).isEmpty());
+    }
+}
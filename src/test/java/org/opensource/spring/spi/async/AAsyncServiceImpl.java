@@ -0,0 +1,47 @@
+package org.opensource.spring.spi.async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+
+import org.opensource.spring.spi.BaseParam;
+import org.opensource.spring.spi.router.ThreadLocalSPIRouter;
+
+import org.springframework.stereotype.Service;
+
+@Service("aAsyncService")
+public class AAsyncServiceImpl implements AsyncService {
+
+    @Override
+    public CompletableFuture<String> sayHello(BaseParam param) {
+        // 在线程池中读取调用时的prefix
+        return CompletableFuture.completedFuture("a: " + ThreadLocalSPIRouter.peekPrefix());
+    }
+
+    @Override
+    public CompletionStage<String> sayHelloLater(BaseParam param) {
+        // 在不传递上下文的线程中完成
+        CompletableFuture<String> future = new CompletableFuture<>();
+        new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            future.complete("a: later");
+        }).start();
+        return future;
+    }
+
+    @Override
+    public CompletionStage<String> sayHelloWhen(CompletableFuture<String> future) {
+        return future;
+    }
+
+    @Override
+    public void notify(BaseParam param, CountDownLatch latch) {
+        param.setChannel("a: " + Thread.currentThread().getName());
+        latch.countDown();
+    }
+
+}
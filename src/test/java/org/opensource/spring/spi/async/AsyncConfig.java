@@ -0,0 +1,23 @@
+package org.opensource.spring.spi.async;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * 异步调用测试线程池
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@Configuration
+public class AsyncConfig {
+
+    @Bean(name = "spiTestExecutor", destroyMethod = "shutdown")
+    public ExecutorService spiTestExecutor() {
+        return Executors.newFixedThreadPool(2, new CustomizableThreadFactory("spi-test-"));
+    }
+}
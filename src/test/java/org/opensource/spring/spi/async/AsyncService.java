@@ -0,0 +1,29 @@
+package org.opensource.spring.spi.async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+
+import org.opensource.spring.spi.BaseParam;
+import org.opensource.spring.spi.annotation.SPI;
+import org.opensource.spring.spi.annotation.SPIAsync;
+
+/**
+ * 异步调用测试接口
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SPI
+public interface AsyncService {
+
+    @SPIAsync
+    CompletableFuture<String> sayHello(BaseParam param);
+
+    CompletionStage<String> sayHelloLater(BaseParam param);
+
+    CompletionStage<String> sayHelloWhen(CompletableFuture<String> future);
+
+    @SPIAsync(executor = "spiTestExecutor")
+    void notify(BaseParam param, CountDownLatch latch);
+}
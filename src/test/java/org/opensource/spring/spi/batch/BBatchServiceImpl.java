@@ -0,0 +1,27 @@
+package org.opensource.spring.spi.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.opensource.spring.spi.BaseParam;
+
+import org.springframework.stereotype.Service;
+
+@Service("bBatchService")
+public class BBatchServiceImpl implements BatchService {
+
+    @Override
+    public String sayHello(BaseParam param) {
+        return "b: " + param.getChannel();
+    }
+
+    @Override
+    public List<String> sayHelloBatch(List<BaseParam> params) {
+        List<String> results = new ArrayList<>();
+        for (BaseParam param : params) {
+            results.add(sayHello(param));
+        }
+        return results;
+    }
+
+}
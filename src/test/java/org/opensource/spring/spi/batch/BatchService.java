@@ -0,0 +1,20 @@
+package org.opensource.spring.spi.batch;
+
+import java.util.List;
+
+import org.opensource.spring.spi.BaseParam;
+import org.opensource.spring.spi.annotation.SPI;
+
+/**
+ * 批量调用测试接口，按参数的channel路由
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SPI(route = "channelRoute")
+public interface BatchService {
+
+    String sayHello(BaseParam param);
+
+    List<String> sayHelloBatch(List<BaseParam> params);
+}
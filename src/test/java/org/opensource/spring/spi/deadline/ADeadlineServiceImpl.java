@@ -0,0 +1,49 @@
+package org.opensource.spring.spi.deadline;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.opensource.spring.spi.BaseParam;
+import org.opensource.spring.spi.router.ThreadLocalSPIRouter;
+
+import org.springframework.stereotype.Service;
+
+@Service("aDeadlineService")
+public class ADeadlineServiceImpl implements DeadlineService {
+
+    @Override
+    public String sayHello(BaseParam param, long sleepMillis) {
+        if (sleepMillis < 0) {
+            throw new IllegalArgumentException("sleepMillis");
+        }
+        try {
+            Thread.sleep(sleepMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 在线程池中读取调用时的prefix
+        return "a: " + ThreadLocalSPIRouter.peekPrefix();
+    }
+
+    @Override
+    public String sayHelloHedged(BaseParam param, long sleepMillis) {
+        return sayHello(param, sleepMillis);
+    }
+
+    @Override
+    public String sayHelloAfter(CountDownLatch latch) {
+        // 忽略中断，模拟超时后仍在执行的调用
+        boolean interrupted = false;
+        while (latch.getCount() > 0) {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return "a: " + ThreadLocalSPIRouter.peekPrefix();
+    }
+
+}
@@ -0,0 +1,26 @@
+package org.opensource.spring.spi.deadline;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.opensource.spring.spi.BaseParam;
+import org.opensource.spring.spi.annotation.SPI;
+import org.opensource.spring.spi.annotation.SPIDeadline;
+
+/**
+ * 调用时限测试接口
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SPI
+public interface DeadlineService {
+
+    @SPIDeadline(timeoutMillis = 200)
+    String sayHello(BaseParam param, long sleepMillis);
+
+    @SPIDeadline(timeoutMillis = 2000, hedgeDelayMillis = 50, hedgePrefix = "b")
+    String sayHelloHedged(BaseParam param, long sleepMillis);
+
+    @SPIDeadline(timeoutMillis = 100)
+    String sayHelloAfter(CountDownLatch latch);
+}
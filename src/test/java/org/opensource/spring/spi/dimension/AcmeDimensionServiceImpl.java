@@ -0,0 +1,17 @@
+package org.opensource.spring.spi.dimension;
+
+import org.opensource.spring.spi.BaseParam;
+import org.opensource.spring.spi.annotation.SPIMatch;
+
+import org.springframework.stereotype.Service;
+
+@SPIMatch("tenant=acme")
+@Service("acmeDimensionService")
+public class AcmeDimensionServiceImpl implements DimensionService {
+
+    @Override
+    public String sayHello(BaseParam param) {
+        return "acme";
+    }
+
+}
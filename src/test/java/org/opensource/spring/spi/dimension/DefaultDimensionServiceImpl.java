@@ -0,0 +1,15 @@
+package org.opensource.spring.spi.dimension;
+
+import org.opensource.spring.spi.BaseParam;
+
+import org.springframework.stereotype.Service;
+
+@Service("DimensionService")
+public class DefaultDimensionServiceImpl implements DimensionService {
+
+    @Override
+    public String sayHello(BaseParam param) {
+        return "default";
+    }
+
+}
@@ -0,0 +1,18 @@
+package org.opensource.spring.spi.dimension;
+
+import org.opensource.spring.spi.BaseParam;
+import org.opensource.spring.spi.annotation.SPI;
+
+/**
+ * 测试服务
+ *
+ * 采用多维路由，按租户、渠道、区域匹配实现
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SPI(route = "dimensionalSPIRouter", dimensions = { "tenant", "channel", "region" })
+public interface DimensionService {
+
+    String sayHello(BaseParam param);
+}
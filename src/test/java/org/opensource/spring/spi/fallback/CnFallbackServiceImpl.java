@@ -0,0 +1,15 @@
+package org.opensource.spring.spi.fallback;
+
+import org.opensource.spring.spi.BaseParam;
+
+import org.springframework.stereotype.Service;
+
+@Service("cnFallbackService")
+public class CnFallbackServiceImpl implements FallbackService {
+
+    @Override
+    public String sayHello(BaseParam param) {
+        return "cn: hello world!";
+    }
+
+}
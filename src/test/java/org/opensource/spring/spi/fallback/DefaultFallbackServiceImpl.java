@@ -0,0 +1,15 @@
+package org.opensource.spring.spi.fallback;
+
+import org.opensource.spring.spi.BaseParam;
+
+import org.springframework.stereotype.Service;
+
+@Service("FallbackService")
+public class DefaultFallbackServiceImpl implements FallbackService {
+
+    @Override
+    public String sayHello(BaseParam param) {
+        return "default: hello world!";
+    }
+
+}
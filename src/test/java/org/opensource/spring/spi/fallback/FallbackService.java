@@ -0,0 +1,17 @@
+package org.opensource.spring.spi.fallback;
+
+import org.opensource.spring.spi.BaseParam;
+import org.opensource.spring.spi.annotation.SPI;
+
+/**
+ * 降级测试接口，没有实现的prefix先降级到cn，再降级到默认实现
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SPI(fallback = { "cn", "" })
+public interface FallbackService {
+
+    String sayHello(BaseParam param);
+
+}
@@ -0,0 +1,15 @@
+package org.opensource.spring.spi.fallback;
+
+import org.opensource.spring.spi.BaseParam;
+
+import org.springframework.stereotype.Service;
+
+@Service("usFallbackService")
+public class UsFallbackServiceImpl implements FallbackService {
+
+    @Override
+    public String sayHello(BaseParam param) {
+        return "us: hello world!";
+    }
+
+}
@@ -0,0 +1,28 @@
+package org.opensource.spring.spi.generated;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.opensource.spring.spi.annotation.SPI;
+
+/**
+ * 测试服务
+ *
+ * 覆盖静态代理生成的各类方法签名
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SPI
+public interface GeneratedService<T extends CharSequence> {
+
+    int length(T value);
+
+    void check(String value) throws IOException;
+
+    <E> List<E> wrap(E element, String... others);
+
+    default String name() {
+        return "default";
+    }
+}
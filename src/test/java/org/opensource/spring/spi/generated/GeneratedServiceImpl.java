@@ -0,0 +1,31 @@
+package org.opensource.spring.spi.generated;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+@Service("aGeneratedService")
+public class GeneratedServiceImpl implements GeneratedService<String> {
+
+    @Override
+    public int length(String value) {
+        return value.length();
+    }
+
+    @Override
+    public void check(String value) throws IOException {
+        throw new IOException(value);
+    }
+
+    @Override
+    public <E> List<E> wrap(E element, String... others) {
+        return Collections.nCopies(others.length + 1, element);
+    }
+
+    @Override
+    public String name() {
+        return "a";
+    }
+}
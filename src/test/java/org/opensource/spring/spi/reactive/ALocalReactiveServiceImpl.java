@@ -0,0 +1,17 @@
+package org.opensource.spring.spi.reactive;
+
+import org.opensource.spring.spi.BaseParam;
+
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Mono;
+
+@Service("aLocalReactiveService")
+public class ALocalReactiveServiceImpl implements LocalReactiveService {
+
+    @Override
+    public Mono<String> sayHello(BaseParam param) {
+        return Mono.just("a: hello world!");
+    }
+
+}
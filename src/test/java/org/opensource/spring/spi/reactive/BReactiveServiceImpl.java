@@ -0,0 +1,28 @@
+package org.opensource.spring.spi.reactive;
+
+import org.opensource.spring.spi.BaseParam;
+
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service("bReactiveService")
+public class BReactiveServiceImpl implements ReactiveService {
+
+    @Override
+    public Mono<String> sayHello(BaseParam param) {
+        return Mono.just("b: hello world!");
+    }
+
+    @Override
+    public Flux<String> sayHellos(BaseParam param, int count) {
+        return Flux.range(0, count).map(i -> "b" + i);
+    }
+
+    @Override
+    public String sayHelloSync(BaseParam param) {
+        return "b: hello world!";
+    }
+
+}
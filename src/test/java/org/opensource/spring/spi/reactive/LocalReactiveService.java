@@ -0,0 +1,22 @@
+package org.opensource.spring.spi.reactive;
+
+import org.opensource.spring.spi.BaseParam;
+import org.opensource.spring.spi.annotation.SPI;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * 测试服务
+ *
+ * 采用默认的ThreadLocal路由，返回Mono
+ *
+ * 实现bean名(aLocalReactiveService)同时以ReactiveService结尾，用于校验启动检查不会把其他SPI接口的实现误报为命名错误
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SPI
+public interface LocalReactiveService {
+
+    Mono<String> sayHello(BaseParam param);
+}
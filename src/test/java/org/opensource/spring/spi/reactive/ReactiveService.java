@@ -0,0 +1,31 @@
+package org.opensource.spring.spi.reactive;
+
+import org.opensource.spring.spi.BaseParam;
+import org.opensource.spring.spi.annotation.SPI;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 测试服务
+ *
+ * 采用响应式路由，prefix从订阅者的Context读取
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SPI(route = "reactiveSPIRouter")
+public interface ReactiveService {
+
+    Mono<String> sayHello(BaseParam param);
+
+    Flux<String> sayHellos(BaseParam param, int count);
+
+    /**
+     * 同步方法，使用ThreadLocal的prefix
+     *
+     * @param param
+     * @return
+     */
+    String sayHelloSync(BaseParam param);
+}
@@ -0,0 +1,15 @@
+package org.opensource.spring.spi.scoped;
+
+import org.opensource.spring.spi.BaseParam;
+
+import org.springframework.stereotype.Service;
+
+@Service("aScopedService")
+public class AScopedServiceImpl implements ScopedService {
+
+    @Override
+    public String sayHello(BaseParam param) {
+        return "a: hello world!";
+    }
+
+}
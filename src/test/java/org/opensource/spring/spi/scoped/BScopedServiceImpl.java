@@ -0,0 +1,15 @@
+package org.opensource.spring.spi.scoped;
+
+import org.opensource.spring.spi.BaseParam;
+
+import org.springframework.stereotype.Service;
+
+@Service("bScopedService")
+public class BScopedServiceImpl implements ScopedService {
+
+    @Override
+    public String sayHello(BaseParam param) {
+        return "b: hello world!";
+    }
+
+}
@@ -0,0 +1,17 @@
+package org.opensource.spring.spi.scoped;
+
+import org.opensource.spring.spi.BaseParam;
+import org.opensource.spring.spi.annotation.SPI;
+
+/**
+ * 作用域路由测试接口
+ *
+ * @author wutianbiao
+ * @date 2026-10-18
+ */
+@SPI(route = "scopedSPIRouter")
+public interface ScopedService {
+
+    String sayHello(BaseParam param);
+
+}
@@ -12,4 +12,9 @@ public class BTestServiceImpl implements TestSpelService {
         return "b: hello world!";
     }
 
+    @Override
+    public String sayHelloCompiled(BaseParam param) {
+        return sayHello(param);
+    }
+
 }
@@ -12,4 +12,9 @@ public class TestServiceImpl implements TestSpelService {
         return "a: hello world!";
     }
 
+    @Override
+    public String sayHelloCompiled(BaseParam param) {
+        return sayHello(param);
+    }
+
 }
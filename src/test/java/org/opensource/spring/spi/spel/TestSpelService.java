@@ -1,8 +1,10 @@
 package org.opensource.spring.spi.spel;
 
+import org.opensource.spring.spi.annotation.ElCompilerMode;
 import org.opensource.spring.spi.annotation.ElParam;
 import org.opensource.spring.spi.annotation.SPI;
 import org.opensource.spring.spi.BaseParam;
+import org.opensource.spring.spi.annotation.SPIInvokerType;
 
 /**
  * 测试服务
@@ -12,7 +14,7 @@ import org.opensource.spring.spi.BaseParam;
  * @author wutianbiao
  * @date 2021-11-20
  */
-@SPI(route = "spelSPIRouter")
+@SPI(route = "spelSPIRouter", invoker = SPIInvokerType.REFLECTION, generateProxy = false)
 public interface TestSpelService {
 
     /**
@@ -22,4 +24,12 @@ public interface TestSpelService {
      * @return
      */
     String sayHello(@ElParam("channel") BaseParam param);
+
+    /**
+     * 立即编译表达式
+     * 
+     * @param param
+     * @return
+     */
+    String sayHelloCompiled(@ElParam(value = "channel", compilerMode = ElCompilerMode.IMMEDIATE) BaseParam param);
 }